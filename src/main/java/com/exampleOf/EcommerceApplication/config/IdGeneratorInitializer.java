@@ -0,0 +1,61 @@
+package com.exampleOf.EcommerceApplication.config;
+
+import com.exampleOf.EcommerceApplication.entity.Base;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Migration from IDENTITY to the pooled "base" id generator (see {@link Base}).
+ * Before anything is inserted, the generator row is moved past the highest id already present in
+ * any Base table, so new rows never reuse an id handed out by AUTO_INCREMENT. Existing
+ * AUTO_INCREMENT columns can stay as they are: MySQL accepts explicit ids for them.
+ * Runs on every start; once the generator is ahead it changes nothing.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdGeneratorInitializer {
+
+    private static final String TABLE = "id_generator";
+    private static final String SEGMENT = "base";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void seed() {
+        long maxId = 0;
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        for (EntityType<?> type : entityManagerFactory.getMetamodel().getEntities()) {
+            if (!Base.class.isAssignableFrom(type.getJavaType())) {
+                continue;
+            }
+            String table = ((AbstractEntityPersister) sessionFactory.getMappingMetamodel()
+                    .getEntityDescriptor(type.getJavaType())).getTableName();
+            Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+            if (max != null) {
+                maxId = Math.max(maxId, max);
+            }
+        }
+
+        // pooled-lo stores the next id to hand out
+        long next = maxId + 1;
+        Long current = jdbcTemplate.query("SELECT next_val FROM " + TABLE + " WHERE sequence_name = ?",
+                rs -> rs.next() ? rs.getLong(1) : null, SEGMENT);
+        if (current == null) {
+            jdbcTemplate.update("INSERT INTO " + TABLE + " (sequence_name, next_val) VALUES (?, ?)", SEGMENT, next);
+            log.info("Id generator '{}' seeded at {}", SEGMENT, next);
+        } else if (current < next) {
+            jdbcTemplate.update("UPDATE " + TABLE + " SET next_val = ? WHERE sequence_name = ? AND next_val < ?",
+                    next, SEGMENT, next);
+            log.info("Id generator '{}' moved from {} to {}", SEGMENT, current, next);
+        }
+    }
+}
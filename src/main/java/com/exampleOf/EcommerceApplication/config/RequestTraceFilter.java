@@ -0,0 +1,56 @@
+package com.exampleOf.EcommerceApplication.config;
+
+import com.exampleOf.EcommerceApplication.util.FlowTrace;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Picks the cart/checkout requests that get a FlowTrace; sampled responses carry the id in X-Trace-Id
+@Component
+public class RequestTraceFilter extends OncePerRequestFilter {
+
+    private static final String[] TRACED_PATHS = {"/api/carts", "/api/cart_items", "/api/orders/checkout"};
+
+    @Value("${trace.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String path = request.getServletPath();
+        for (String traced : TRACED_PATHS) {
+            if (path.startsWith(traced)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        String traceId = FlowTrace.begin(sampleRate);
+        if (traceId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        response.setHeader("X-Trace-Id", traceId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            FlowTrace.event("{} {} took {} us", request.getMethod(), request.getRequestURI(),
+                    (System.nanoTime() - start) / 1_000);
+            FlowTrace.end();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.exampleOf.EcommerceApplication.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Two scheduler pools. "taskScheduler" (the default for every @Scheduled method) runs the short,
+ * latency-sensitive jobs: outbox relay, inventory and view flushes, reservation expiry, SSE
+ * heartbeats, cart sweeps. Full in-memory index rebuilds take seconds on a large catalog, so they
+ * name INDEX_REBUILD_SCHEDULER and never hold up those jobs.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    public static final String INDEX_REBUILD_SCHEDULER = "indexRebuildScheduler";
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${scheduling.pool-size:4}") int poolSize) {
+        return scheduler(poolSize, "scheduler-");
+    }
+
+    @Bean(INDEX_REBUILD_SCHEDULER)
+    public ThreadPoolTaskScheduler indexRebuildScheduler(@Value("${scheduling.index-rebuild.pool-size:2}") int poolSize) {
+        return scheduler(poolSize, "index-rebuild-");
+    }
+
+    private static ThreadPoolTaskScheduler scheduler(int poolSize, String threadNamePrefix) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(10);
+        return scheduler;
+    }
+}
@@ -1,8 +1,11 @@
 package com.exampleOf.EcommerceApplication.controller;
 
+import com.exampleOf.EcommerceApplication.dto.requestdto.CartBulkUpdateRequestDTO;
 import com.exampleOf.EcommerceApplication.dto.requestdto.CartRequestDTO;
 import com.exampleOf.EcommerceApplication.dto.responsedto.CartResponseDTO;
+import com.exampleOf.EcommerceApplication.dto.responsedto.CartSweepStatsDTO;
 import com.exampleOf.EcommerceApplication.service.CartService;
+import com.exampleOf.EcommerceApplication.service.CartSweeper;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,9 +16,11 @@ import java.util.List;
 //@CrossOrigin(origins = "http://localhost:4200")
 public class CartController {
     private final CartService cartService;
+    private final CartSweeper cartSweeper;
 
-    public CartController(CartService cartService) {
+    public CartController(CartService cartService, CartSweeper cartSweeper) {
         this.cartService = cartService;
+        this.cartSweeper = cartSweeper;
     }
 
     // ✅ NEW: Get cart by User ID (Most used endpoint!)
@@ -30,12 +35,25 @@ public class CartController {
         return ResponseEntity.ok(cartService.clearCart(cartId));
     }
 
+    // Many line changes at once (restore a saved list, reorder): ADD / SET / REMOVE, applied in order
+    @PostMapping("/{cartId}/items/bulk")
+    public ResponseEntity<CartResponseDTO> bulkUpdateItems(@PathVariable Long cartId,
+                                                           @RequestBody CartBulkUpdateRequestDTO request) {
+        return ResponseEntity.ok(cartService.applyBulkUpdate(cartId, request));
+    }
+
     // ⚠️ WARNING: This can create duplicate carts!
     @PostMapping
     public ResponseEntity<CartResponseDTO> createCart(@RequestBody CartRequestDTO dto) {
         return ResponseEntity.ok(cartService.createCart(dto));
     }
 
+    // Idle-cart sweeper: deleted carts/items and how long the last sweep took
+    @GetMapping("/sweeper/stats")
+    public CartSweepStatsDTO getSweeperStats() {
+        return cartSweeper.stats();
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<CartResponseDTO> getCartById(@PathVariable Long id) {
         return ResponseEntity.ok(cartService.getCartById(id));
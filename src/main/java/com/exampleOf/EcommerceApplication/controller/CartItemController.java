@@ -3,6 +3,7 @@ package com.exampleOf.EcommerceApplication.controller;
 import com.exampleOf.EcommerceApplication.dto.requestdto.CartItemRequestDTO;
 import com.exampleOf.EcommerceApplication.dto.responsedto.CartItemResponseDTO;
 import com.exampleOf.EcommerceApplication.service.CartItemService;
+import com.exampleOf.EcommerceApplication.service.CartService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,10 +18,15 @@ import java.util.List;
 public class CartItemController {
 
     private final CartItemService cartItemService;
+    private final CartService cartService;
 
     // ✅ CREATE: Add item to cart
     @PostMapping
     public ResponseEntity<CartItemResponseDTO> createCartItem(@RequestBody CartItemRequestDTO requestDTO) {
+        // With a userId the item goes to the user's cart, recreated if CartSweeper deleted the idle one
+        if (requestDTO.getUserId() != null) {
+            requestDTO.setCartId(cartService.getOrCreateCart(requestDTO.getUserId()).getId());
+        }
         CartItemResponseDTO response = cartItemService.addItemToCart(requestDTO);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
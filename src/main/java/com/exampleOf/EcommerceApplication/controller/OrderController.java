@@ -2,10 +2,19 @@ package com.exampleOf.EcommerceApplication.controller;
 
 
 import com.exampleOf.EcommerceApplication.dto.requestdto.OrderRequestDTO;
+import com.exampleOf.EcommerceApplication.dto.responsedto.CursorPageDTO;
+import com.exampleOf.EcommerceApplication.dto.responsedto.OrderEventRelayStatsDTO;
 import com.exampleOf.EcommerceApplication.dto.responsedto.OrderResponseDTO;
+import com.exampleOf.EcommerceApplication.dto.responsedto.OrderSummaryDTO;
 import com.exampleOf.EcommerceApplication.enums.OrderStatus;
+import com.exampleOf.EcommerceApplication.service.CheckoutIdempotency;
+import com.exampleOf.EcommerceApplication.service.CheckoutPipeline;
+import com.exampleOf.EcommerceApplication.service.OrderEventRelay;
 import com.exampleOf.EcommerceApplication.service.OrderService;
+import com.exampleOf.EcommerceApplication.service.OrderStatusStream;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -15,9 +24,19 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
-
-    public OrderController(OrderService orderService) {
+    private final CheckoutPipeline checkoutPipeline;
+    private final CheckoutIdempotency checkoutIdempotency;
+    private final OrderEventRelay orderEventRelay;
+    private final OrderStatusStream orderStatusStream;
+
+    public OrderController(OrderService orderService, CheckoutPipeline checkoutPipeline,
+                           CheckoutIdempotency checkoutIdempotency, OrderEventRelay orderEventRelay,
+                           OrderStatusStream orderStatusStream) {
         this.orderService = orderService;
+        this.checkoutPipeline = checkoutPipeline;
+        this.checkoutIdempotency = checkoutIdempotency;
+        this.orderEventRelay = orderEventRelay;
+        this.orderStatusStream = orderStatusStream;
     }
 
 
@@ -33,12 +52,32 @@ public class OrderController {
     }
 
 
+    // "My Orders": summaries, newest first, keyset paged; details via GET /{id}
+    @GetMapping("/user/{userId}/history")
+    public CursorPageDTO<OrderSummaryDTO> getOrderHistory(@PathVariable Long userId,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "20") int size) {
+        return orderService.getOrderHistory(userId, cursor, size);
+    }
+
+    // Outbox relay throughput and lag (events written but not yet published)
+    @GetMapping("/events/stats")
+    public OrderEventRelayStatsDTO getOrderEventStats() {
+        return orderEventRelay.stats();
+    }
+
     @GetMapping("/{id}")
     public OrderResponseDTO getOrderById(@PathVariable Long id) {
         return orderService.findById(id);
     }
 
 
+    // Live status: the current one first, then every transition (server-sent events named "status")
+    @GetMapping(value = "/{id}/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStatus(@PathVariable Long id) {
+        return orderStatusStream.subscribe(id);
+    }
+
     @PutMapping("/{id}/status")
     public OrderResponseDTO updateStatus(@PathVariable Long id,
                                          @RequestParam OrderStatus status) {
@@ -55,7 +94,13 @@ public class OrderController {
 
     @PostMapping("/checkout")
     public OrderResponseDTO checkout(@RequestParam Long userId,
-                                     @RequestParam Long addressId) {
-        return orderService.checkout(userId, addressId);
+                                     @RequestParam Long addressId,
+                                     @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return checkoutPipeline.checkout(userId, addressId);
+        }
+        // Retries with the same key get the first response back instead of a second order
+        return checkoutIdempotency.checkout(userId, idempotencyKey,
+                () -> checkoutPipeline.checkout(userId, addressId));
     }
 }
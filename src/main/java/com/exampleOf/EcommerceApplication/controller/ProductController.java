@@ -1,9 +1,16 @@
 package com.exampleOf.EcommerceApplication.controller;
 
 
+import com.exampleOf.EcommerceApplication.Exception.CustomException.BadRequestException;
 import com.exampleOf.EcommerceApplication.dto.requestdto.ProductRequestDTO;
+import com.exampleOf.EcommerceApplication.dto.responsedto.CacheStatsDTO;
+import com.exampleOf.EcommerceApplication.dto.responsedto.CursorPageDTO;
+import com.exampleOf.EcommerceApplication.dto.responsedto.FacetedProductPageDTO;
 import com.exampleOf.EcommerceApplication.dto.responsedto.ProductResponseDTO;
+import com.exampleOf.EcommerceApplication.dto.responsedto.ProductSuggestionDTO;
+import com.exampleOf.EcommerceApplication.enums.ExportFormat;
 import com.exampleOf.EcommerceApplication.enums.ProductStatus;
+import com.exampleOf.EcommerceApplication.service.ProductExportService;
 import com.exampleOf.EcommerceApplication.service.ProductService;
 import com.exampleOf.EcommerceApplication.service.VendorService;
 import jakarta.validation.Valid;
@@ -12,10 +19,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -27,6 +37,7 @@ public class ProductController {
 
     private final ProductService productService;
     private final VendorService vendorService;
+    private final ProductExportService productExportService;
 
     // ✅ VENDOR ENDPOINTS - Secure with vendor ownership check
     @PostMapping("/vendors/{vendorId}")
@@ -56,6 +67,20 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    // ✅ Cursor mode: pass back nextCursor to get the following slice, no total count
+    @GetMapping("/vendors/{vendorId}/scroll")
+    @PreAuthorize("hasRole('VENDOR') and @vendorService.isVendorOwner(#vendorId, authentication.principal.id) or hasRole('ADMIN')")
+    public ResponseEntity<CursorPageDTO<ProductResponseDTO>> scrollVendorProducts(
+            @PathVariable Long vendorId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDirection) {
+        Sort.Order order = new Sort.Order(Sort.Direction.fromString(sortDirection), sortBy);
+        CursorPageDTO<ProductResponseDTO> products = productService.scrollProductsByVendor(vendorId, cursor, size, order);
+        return ResponseEntity.ok(products);
+    }
+
     @GetMapping("/vendors/{vendorId}/active")
     @PreAuthorize("hasRole('VENDOR') and @vendorService.isVendorOwner(#vendorId, authentication.principal.id) or hasRole('ADMIN')")
     public ResponseEntity<List<ProductResponseDTO>> getActiveVendorProducts(@PathVariable Long vendorId) {
@@ -115,6 +140,33 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDTO<ProductResponseDTO>> scrollAllProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDirection) {
+        Sort.Order order = new Sort.Order(Sort.Direction.fromString(sortDirection), sortBy);
+        CursorPageDTO<ProductResponseDTO> products = productService.scrollAllProducts(cursor, size, order);
+        return ResponseEntity.ok(products);
+    }
+
+    // ✅ Whole catalog as NDJSON or CSV, streamed with flat memory (for partner feeds)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Unsupported export format: " + format);
+        }
+        StreamingResponseBody body = out -> productExportService.export(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     // ✅ CATEGORY & STATUS ENDPOINTS
     @GetMapping("/category/{categoryId}")
     public ResponseEntity<List<ProductResponseDTO>> getProductsByCategory(@PathVariable Long categoryId) {
@@ -132,6 +184,18 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping("/category/{categoryId}/scroll")
+    public ResponseEntity<CursorPageDTO<ProductResponseDTO>> scrollProductsByCategory(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDirection) {
+        Sort.Order order = new Sort.Order(Sort.Direction.fromString(sortDirection), sortBy);
+        CursorPageDTO<ProductResponseDTO> products = productService.scrollProductsByCategory(categoryId, cursor, size, order);
+        return ResponseEntity.ok(products);
+    }
+
     @GetMapping("/status/{status}")
     public ResponseEntity<List<ProductResponseDTO>> getProductsByStatus(@PathVariable ProductStatus status) {
         List<ProductResponseDTO> products = productService.getProductsByStatus(status);
@@ -139,6 +203,8 @@ public class ProductController {
     }
 
     // ✅ SEARCH & FILTER ENDPOINTS
+    // Search matches every word of the keyword as a whole word or word prefix (see ProductSearchIndex),
+    // not an arbitrary substring; the substring match only applies while the index is still building
     @GetMapping("/search")
     public ResponseEntity<List<ProductResponseDTO>> searchProducts(@RequestParam String keyword) {
         List<ProductResponseDTO> products = productService.searchProducts(keyword);
@@ -155,6 +221,29 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping("/search/scroll")
+    public ResponseEntity<CursorPageDTO<ProductResponseDTO>> scrollSearchProducts(
+            @RequestParam String keyword,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPageDTO<ProductResponseDTO> products = productService.scrollSearchProducts(keyword, cursor, size);
+        return ResponseEntity.ok(products);
+    }
+
+    // ✅ Search-as-you-type completions (served from memory)
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestionDTO>> suggestProducts(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "10") int limit) {
+        // The index precomputes only product.suggest.top-k completions per prefix
+        int maxLimit = productService.maxSuggestions();
+        if (limit < 1 || limit > maxLimit) {
+            throw new BadRequestException("limit must be between 1 and " + maxLimit);
+        }
+        List<ProductSuggestionDTO> suggestions = productService.suggestProducts(keyword, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
     // ✅ UPDATED: Filter endpoint with pagination
     @GetMapping("/filter")
     public ResponseEntity<Page<ProductResponseDTO>> filterProducts(
@@ -180,11 +269,37 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    // ✅ Filter plus brand/category facet counts and price bounds in one round-trip
+    @GetMapping("/filter/faceted")
+    public ResponseEntity<FacetedProductPageDTO> filterProductsFaceted(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long subCategoryId,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection) {
+
+        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
+        Pageable pageable = PageRequest.of(page, size, sort);
+
+        FacetedProductPageDTO result = productService.filterProductsFaceted(
+                categoryId, subCategoryId, minPrice, maxPrice,
+                brand, minRating, inStock, pageable);
+
+        return ResponseEntity.ok(result);
+    }
+
     // ✅ FEATURED PRODUCTS ENDPOINTS
     @GetMapping("/trending")
     public ResponseEntity<List<ProductResponseDTO>> getTrendingProducts(
+            @RequestParam(required = false) Long categoryId,
             @RequestParam(defaultValue = "10") int limit) {
-        List<ProductResponseDTO> products = productService.getTrendingProducts(limit);
+        List<ProductResponseDTO> products = productService.getTrendingProducts(categoryId, limit);
         return ResponseEntity.ok(products);
     }
 
@@ -212,6 +327,14 @@ public class ProductController {
         return ResponseEntity.ok(product);
     }
 
+    // ✅ Product detail cache hit/miss/eviction counters
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CacheStatsDTO> getProductCacheStats() {
+        CacheStatsDTO stats = productService.getProductCacheStats();
+        return ResponseEntity.ok(stats);
+    }
+
     // ✅ NEW: Get similar products
     @GetMapping("/{productId}/similar")
     public ResponseEntity<List<ProductResponseDTO>> getSimilarProducts(
@@ -0,0 +1,20 @@
+package com.exampleOf.EcommerceApplication.dto.requestdto;
+
+import com.exampleOf.EcommerceApplication.enums.CartLineAction;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Many cart line changes in one request; applied in order, all or nothing
+@Data
+public class CartBulkUpdateRequestDTO {
+    private List<Operation> operations = new ArrayList<>();
+
+    @Data
+    public static class Operation {
+        private CartLineAction action;
+        private Long productId;
+        private Integer quantity; // Not used by REMOVE
+    }
+}
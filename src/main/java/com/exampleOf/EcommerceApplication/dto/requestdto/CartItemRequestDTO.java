@@ -4,8 +4,8 @@ import lombok.Data;
 
 @Data
 public class CartItemRequestDTO {
-    private Long cartId;        // Required: Which cart to add to
+    private Long cartId;        // Which cart to add to (required unless userId is given)
     private Long productId;     // Required: Which product to add
     private Integer quantity = 1;
-//    private Long userId;
+    private Long userId;        // Optional: add to this user's cart, creating it if there is none
 }
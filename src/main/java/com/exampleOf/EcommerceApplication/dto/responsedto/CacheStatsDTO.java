@@ -0,0 +1,19 @@
+package com.exampleOf.EcommerceApplication.dto.responsedto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO {
+    private Long hitCount;
+    private Long missCount;
+    private Double hitRate;
+    private Long evictionCount;
+    private Long evictionWeight;
+    private Long estimatedSize;
+    private Long weightedSize; // Approximate bytes held
+    private Long maximumWeight;
+}
@@ -0,0 +1,24 @@
+package com.exampleOf.EcommerceApplication.dto.responsedto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartSweepStatsDTO {
+    private Boolean running; // A sweep is between batches right now
+    private Long sweepCount; // Finished sweeps since startup, on this instance
+    private Long cartsDeleted; // Since startup
+    private Long itemsDeleted;
+    private Long failedBatchCount;
+    private LocalDateTime lastSweepStartedAt;
+    private LocalDateTime lastSweepCutoff; // Carts idle since before this were swept
+    private Long lastSweepDurationMs; // First batch to last, pauses included
+    private Integer lastSweepBatches;
+    private Long lastSweepCarts;
+    private Long lastSweepItems;
+}
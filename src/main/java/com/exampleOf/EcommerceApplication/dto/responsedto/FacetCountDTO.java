@@ -0,0 +1,14 @@
+package com.exampleOf.EcommerceApplication.dto.responsedto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCountDTO {
+    private Long id;       // category id (null for brands)
+    private String value;  // brand or category name
+    private Integer count; // matching products
+}
@@ -0,0 +1,16 @@
+package com.exampleOf.EcommerceApplication.dto.responsedto;
+
+import lombok.Data;
+import org.springframework.data.domain.Page;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class FacetedProductPageDTO {
+    private Page<ProductResponseDTO> products;
+    private List<FacetCountDTO> brands;
+    private List<FacetCountDTO> categories;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+}
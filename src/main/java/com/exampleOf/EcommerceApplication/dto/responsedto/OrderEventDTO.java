@@ -0,0 +1,26 @@
+package com.exampleOf.EcommerceApplication.dto.responsedto;
+
+import com.exampleOf.EcommerceApplication.enums.OrderEventType;
+import com.exampleOf.EcommerceApplication.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// What sinks receive; eventId is unique, so consumers can drop the duplicates a retried batch produces
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEventDTO {
+    private Long eventId;
+    private OrderEventType type;
+    private Long orderId;
+    private String orderNumber;
+    private Long userId;
+    private OrderStatus status;
+    private OrderStatus previousStatus;
+    private BigDecimal totalAmount;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,21 @@
+package com.exampleOf.EcommerceApplication.dto.responsedto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEventRelayStatsDTO {
+    private Long publishedCount; // Since startup, on this instance
+    private Long batchCount;
+    private Long failedBatchCount;
+    private Long pendingCount; // Unpublished rows in order_events
+    private Long oldestPendingAgeMs; // Current lag: age of the oldest unpublished event, 0 if none
+    private Long lastBatchSize;
+    private Long lastBatchMaxLagMs; // Commit-to-publish delay of the oldest event in the last batch
+    private Double averageLagMs; // Over every event published since startup
+    private Integer sinkCount;
+    private Long sinkFailureCount; // Deliveries a sink threw on; the events stay pending until it takes them
+}
@@ -0,0 +1,19 @@
+package com.exampleOf.EcommerceApplication.dto.responsedto;
+
+import com.exampleOf.EcommerceApplication.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Pushed on GET /api/orders/{id}/status/stream; the first one is the status at subscribe time
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusEventDTO {
+    private Long orderId;
+    private OrderStatus status;
+    private OrderStatus previousStatus; // null on the initial event
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,21 @@
+package com.exampleOf.EcommerceApplication.dto.responsedto;
+
+import com.exampleOf.EcommerceApplication.enums.OrderStatus;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// One row of a user's order history; the full order comes from GET /api/orders/{id}
+@Data
+public class OrderSummaryDTO {
+    private Long id;
+    private String orderNumber;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private LocalDateTime orderDate;
+    private Integer itemCount; // Number of order lines
+    private Integer totalQuantity; // Units across all lines
+    private List<String> previewImages; // Images of the first few products, for thumbnails
+}
@@ -4,13 +4,19 @@ package com.exampleOf.EcommerceApplication.dto.responsedto;
 import com.exampleOf.EcommerceApplication.dto.requestdto.FileDataDTO;
 import com.exampleOf.EcommerceApplication.dto.requestdto.ProductSpecificationDTO;
 import com.exampleOf.EcommerceApplication.enums.ProductStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
 public class ProductResponseDTO {
     private Long id;
     private String name;
@@ -28,11 +34,9 @@ public class ProductResponseDTO {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private List<ProductSpecificationDTO> specifications;
+    private Integer viewCount;
 
 
-    public void setViewCount(Integer viewCount) {
-    }
-
     public void setSalesCount(Integer salesCount) {
     }
 
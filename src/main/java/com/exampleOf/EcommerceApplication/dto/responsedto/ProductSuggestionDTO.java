@@ -0,0 +1,15 @@
+package com.exampleOf.EcommerceApplication.dto.responsedto;
+
+import com.exampleOf.EcommerceApplication.enums.SuggestionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSuggestionDTO {
+    private String text;
+    private SuggestionType type;
+    private Long id; // product, category or sub-category id (null for brands)
+}
@@ -17,8 +17,12 @@ import java.time.LocalDateTime;
 @Setter
 @EntityListeners(AuditingEntityListener.class)
 public class Base implements Serializable {
+    // Ids come from a pooled table generator (blocks of 50 per round trip) instead of IDENTITY,
+    // so Hibernate can hold INSERTs back and send them as JDBC batches. See IdGeneratorInitializer.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "base_id")
+    @TableGenerator(name = "base_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "base", allocationSize = 50)
     private Long id; // Primary Key
 
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -1,22 +1,19 @@
 package com.exampleOf.EcommerceApplication.entity;
 
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.EqualsAndHashCode;
-import lombok.NoArgsConstructor;
+import lombok.*;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Entity
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "carts")
+@Table(name = "carts", indexes = {
+        @Index(name = "idx_carts_updated_at", columnList = "updated_at")
+})
 @EqualsAndHashCode(callSuper = true)
 @EntityListeners(AuditingEntityListener.class)
 public class Cart extends Base{
@@ -32,66 +29,104 @@ public class Cart extends Base{
     @Column(name = "total_price", nullable = false)
     private BigDecimal totalPrice = BigDecimal.ZERO;
 
-    // ✅ FIXED: Better item management WITH PRICE
-    public void addItem(Product product, Integer quantity) {
-        // Get current product price
-        BigDecimal currentPrice = product.getPrice();
-
-        // Check if item already exists
-        Optional<CartItem> existingItem = findItemByProductId(product.getId());
-
-        if (existingItem.isPresent()) {
-            // Update quantity of existing item
-            CartItem item = existingItem.get();
-            item.setQuantity(item.getQuantity() + quantity);
-        } else {
-            // Create new cart item with price
-            CartItem newItem = new CartItem();
-            newItem.setCart(this);
-            newItem.setProduct(product);
-            newItem.setQuantity(quantity);
-            newItem.setPricePerItem(currentPrice); // ✅ STORE THE PRICE!
-
-            items.add(newItem);
+    // In-memory view of items: product id -> line, plus running totals in exact cents.
+    // Built from items on first use after loading, then kept current by the methods below,
+    // so a change costs O(1) instead of a scan and a full re-sum.
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Map<Long, CartItem> itemsByProduct;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private long subtotalCents;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private int itemCount;
+
+    // ✅ Add a product (merges into its existing line); returns the line that changed
+    public CartItem addItem(Product product, Integer quantity) {
+        CartItem existing = index().get(product.getId());
+        if (existing != null) {
+            changeQuantity(existing, existing.getQuantity() + quantity);
+            return existing;
         }
-        recalculateTotal();
+
+        // Create new cart item with the current product price
+        CartItem newItem = new CartItem();
+        newItem.setCart(this);
+        newItem.setProduct(product);
+        newItem.setQuantity(quantity);
+        newItem.setPricePerItem(product.getPrice()); // ✅ STORE THE PRICE!
+        attach(newItem);
+        return newItem;
     }
 
-    // ✅ FIXED: Add item with CartItem object (if needed)
-    public void addItem(CartItem item) {
+    // ✅ Add item with CartItem object (if needed)
+    public CartItem addItem(CartItem item) {
         // Ensure price is set from product
         if (item.getPricePerItem() == null) {
             item.setPricePerItem(item.getProduct().getPrice());
         }
 
-        Optional<CartItem> existingItem = findItemByProductId(item.getProduct().getId());
-
-        if (existingItem.isPresent()) {
-            CartItem existing = existingItem.get();
-            existing.setQuantity(existing.getQuantity() + item.getQuantity());
-        } else {
-            items.add(item);
-            item.setCart(this);
+        CartItem existing = index().get(item.getProduct().getId());
+        if (existing != null) {
+            changeQuantity(existing, existing.getQuantity() + item.getQuantity());
+            return existing;
         }
-        recalculateTotal();
+        item.setCart(this);
+        attach(item);
+        return item;
     }
 
     public void removeItem(CartItem item) {
-        items.remove(item);
+        Map<Long, CartItem> index = index();
+        if (items.remove(item)) {
+            index.remove(item.getProduct().getId(), item);
+            subtotalCents -= item.totalCents();
+            itemCount -= item.getQuantity();
+            syncTotalPrice();
+        }
         item.setCart(null);
-        recalculateTotal();
     }
 
     // ✅ Remove item by product ID
     public void removeItemByProductId(Long productId) {
-        items.removeIf(item -> {
-            boolean shouldRemove = item.getProduct().getId().equals(productId);
-            if (shouldRemove) {
-                item.setCart(null);
+        CartItem item = index().get(productId);
+        if (item != null) {
+            removeItem(item);
+        }
+    }
+
+    // ✅ Remove several lines in one pass over the list; one removeItem per line would rescan it each time
+    public void removeItemsByProductIds(Collection<Long> productIds) {
+        Map<Long, CartItem> index = index();
+        Set<CartItem> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Long productId : productIds) {
+            CartItem item = index.remove(productId);
+            if (item != null) {
+                removed.add(item);
+                subtotalCents -= item.totalCents();
+                itemCount -= item.getQuantity();
             }
-            return shouldRemove;
-        });
-        recalculateTotal();
+        }
+        if (removed.isEmpty()) {
+            return;
+        }
+        items.removeAll(removed);
+        for (CartItem item : removed) {
+            item.setCart(null);
+        }
+        syncTotalPrice();
     }
 
     // ✅ Update item quantity
@@ -101,28 +136,85 @@ public class Cart extends Base{
             return;
         }
 
-        findItemByProductId(productId).ifPresent(item -> {
-            item.setQuantity(newQuantity);
-            recalculateTotal();
-        });
+        CartItem item = index().get(productId);
+        if (item != null) {
+            changeQuantity(item, newQuantity);
+        }
+    }
+
+    // ✅ Remove every line
+    public void clearItems() {
+        for (CartItem item : items) {
+            item.setCart(null);
+        }
+        items.clear();
+        itemsByProduct = new HashMap<>();
+        subtotalCents = 0;
+        itemCount = 0;
+        totalPrice = BigDecimal.ZERO;
     }
 
+    // Full re-sum from the lines, for when items was changed without going through this class
     public void recalculateTotal() {
-        this.totalPrice = items.stream()
-                .map(CartItem::getTotalPrice) // This uses getTotalPrice() from CartItem
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        itemsByProduct = null;
+        index();
+        syncTotalPrice();
     }
 
     public int getTotalItems() {
-        return items.stream()
-                .mapToInt(CartItem::getQuantity)
-                .sum();
+        index();
+        return itemCount;
     }
 
     // ✅ Find item by product
     public Optional<CartItem> findItemByProductId(Long productId) {
-        return items.stream()
-                .filter(item -> item.getProduct().getId().equals(productId))
-                .findFirst();
+        return Optional.ofNullable(index().get(productId));
+    }
+
+    public void setItems(List<CartItem> items) {
+        this.items = items;
+        this.itemsByProduct = null;
+    }
+
+    // ==================== HELPERS ====================
+
+    private Map<Long, CartItem> index() {
+        if (itemsByProduct == null) {
+            Map<Long, CartItem> index = new HashMap<>(Math.max(16, items.size() * 2));
+            long cents = 0;
+            int count = 0;
+            for (CartItem item : items) {
+                index.put(item.getProduct().getId(), item);
+                cents += item.totalCents();
+                count += item.getQuantity();
+            }
+            itemsByProduct = index;
+            subtotalCents = cents;
+            itemCount = count;
+        }
+        return itemsByProduct;
+    }
+
+    private void attach(CartItem item) {
+        Map<Long, CartItem> index = index();
+        items.add(item);
+        index.put(item.getProduct().getId(), item);
+        subtotalCents += item.totalCents();
+        itemCount += item.getQuantity();
+        syncTotalPrice();
+    }
+
+    private void changeQuantity(CartItem item, int quantity) {
+        index();
+        subtotalCents -= item.totalCents();
+        itemCount -= item.getQuantity();
+        item.setQuantity(quantity);
+        subtotalCents += item.totalCents();
+        itemCount += quantity;
+        syncTotalPrice();
+    }
+
+    private void syncTotalPrice() {
+        totalPrice = BigDecimal.valueOf(subtotalCents, 2);
     }
 }
@@ -7,12 +7,15 @@ import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 
 @Entity
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "cart_items")
+@Table(name = "cart_items", indexes = {
+        @Index(name = "idx_cart_items_cart_product", columnList = "cart_id, product_id")
+})
 @EqualsAndHashCode(callSuper = true)
 public class CartItem extends Base{
 
@@ -35,6 +38,12 @@ public class CartItem extends Base{
         return pricePerItem.multiply(BigDecimal.valueOf(quantity));
     }
 
+    // Line total in whole cents, for the cart's running subtotal
+    public long totalCents() {
+        return Math.multiplyExact(pricePerItem.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact(),
+                (long) quantity);
+    }
+
     // ✅ Update quantity with validation
     public void updateQuantity(Integer newQuantity) {
         if (newQuantity <= 0) {
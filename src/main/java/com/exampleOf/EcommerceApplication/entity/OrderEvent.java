@@ -0,0 +1,59 @@
+package com.exampleOf.EcommerceApplication.entity;
+
+import com.exampleOf.EcommerceApplication.enums.OrderEventType;
+import com.exampleOf.EcommerceApplication.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Outbox row: written in the transaction that changed the order, published later by OrderEventRelay
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "order_events", indexes = {
+        @Index(name = "idx_order_events_published_at", columnList = "published_at, id")
+})
+public class OrderEvent {
+
+    // Pooled like Base ids, so the events of a group checkout are inserted as one batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_event_id")
+    @TableGenerator(name = "order_event_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "order_event", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderEventType type;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "order_number")
+    private String orderNumber;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private OrderStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status", length = 20)
+    private OrderStatus previousStatus;
+
+    @Column(name = "total_amount", precision = 15, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt; // null until the relay has handed it to every sink
+}
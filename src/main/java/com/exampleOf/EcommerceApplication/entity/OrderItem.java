@@ -20,10 +20,18 @@ public class OrderItem extends Base{
     @JoinColumn(name = "order_id")
     private Order order;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id")
     private Product product;
 
+    // Snapshot taken when the line is created, so rendering an order never loads the product
+    // and old orders keep the name and picture the customer actually bought
+    @Column(name = "product_name")
+    private String productName;
+
+    @Column(name = "product_image", length = 500)
+    private String productImage;
+
     private Integer quantity;
 
     @Column(nullable = false, precision = 15, scale = 2)
@@ -13,7 +13,12 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        @Index(name = "idx_products_category_id", columnList = "category_id, id"),
+        @Index(name = "idx_products_vendor_id", columnList = "vendor_id, id")
+})
 @EqualsAndHashCode(callSuper = true)
 @Builder
 public class Product extends Base{
@@ -27,7 +32,8 @@ public class Product extends Base{
     @Column(nullable = false)
     private BigDecimal price;
 
-    @Column(nullable = false)
+    // Set on insert only; afterwards stock moves through InventoryLedger, never through entity saves
+    @Column(nullable = false, updatable = false)
     private Integer stock;
 
     private Double discount;
@@ -69,7 +75,7 @@ public class Product extends Base{
     @Column(nullable = false)
     private ProductStatus status = ProductStatus.ACTIVE;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private Category category;
 
@@ -0,0 +1,28 @@
+package com.exampleOf.EcommerceApplication.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Snapshot of a product's time-decayed view/sales counters, one compact row per product
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "product_activity")
+public class ProductActivity {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "view_score", nullable = false)
+    private Double viewScore; // Decayed view count as of decayedAt
+
+    @Column(name = "sales_score", nullable = false)
+    private Double salesScore; // Decayed units sold as of decayedAt
+
+    @Column(name = "decayed_at", nullable = false)
+    private Long decayedAt; // Epoch millis the scores were last decayed to
+}
@@ -0,0 +1,7 @@
+package com.exampleOf.EcommerceApplication.enums;
+
+public enum CartLineAction {
+    ADD,    // Add quantity to the line, creating it if needed
+    SET,    // Set the line's quantity; 0 removes it
+    REMOVE  // Remove the line
+}
@@ -0,0 +1,8 @@
+package com.exampleOf.EcommerceApplication.enums;
+
+public enum OrderEventType {
+    PLACED,
+    STATUS_CHANGED,
+    CANCELLED,
+    DELETED
+}
@@ -0,0 +1,8 @@
+package com.exampleOf.EcommerceApplication.enums;
+
+public enum SuggestionType {
+    PRODUCT,
+    BRAND,
+    CATEGORY,
+    SUB_CATEGORY
+}
@@ -7,6 +7,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +24,16 @@ public interface CartItemRepo extends JpaRepository<CartItem, Long> {
     // Delete all items from a cart
     void deleteAllByCartId(Long cartId);
 
+    // Delete all items of several carts in one statement (checkout)
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id IN :cartIds")
+    int deleteAllByCartIdIn(@Param("cartIds") Collection<Long> cartIds);
+
+    // Delete the lines of several carts that were not changed since the cutoff (cart sweeper)
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id IN :cartIds AND ci.updatedAt < :cutoff")
+    int deleteIdleByCartIdIn(@Param("cartIds") Collection<Long> cartIds, @Param("cutoff") LocalDateTime cutoff);
+
     // Delete specific item by cart and product
     void deleteByCartIdAndProductId(Long cartId, Long productId);
 
@@ -30,6 +43,14 @@ public interface CartItemRepo extends JpaRepository<CartItem, Long> {
     // Check if product exists in cart
     boolean existsByCartIdAndProductId(Long cartId, Long productId);
 
+    // Units in a cart, without loading its lines
+    @Query("SELECT COALESCE(SUM(ci.quantity), 0) FROM CartItem ci WHERE ci.cart.id = :cartId")
+    long sumQuantityByCartId(@Param("cartId") Long cartId);
+
+    // Subtotal of a cart, without loading its lines
+    @Query("SELECT COALESCE(SUM(ci.pricePerItem * ci.quantity), 0) FROM CartItem ci WHERE ci.cart.id = :cartId")
+    BigDecimal sumTotalPriceByCartId(@Param("cartId") Long cartId);
+
     // Update quantity for specific item
     @Modifying
     @Query("UPDATE CartItem ci SET ci.quantity = :quantity WHERE ci.id = :id")
@@ -1,12 +1,58 @@
 package com.exampleOf.EcommerceApplication.repository;
 
 import com.exampleOf.EcommerceApplication.entity.Cart;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CartRepo extends JpaRepository<Cart, Long> {
     Optional<Cart> findByUserId(Long userId);
+
+    @Query("SELECT c.id FROM Cart c WHERE c.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+
+    // Cart, user, lines and their products in one query (cart cache loads)
+    @Query("""
+        SELECT DISTINCT c FROM Cart c
+        JOIN FETCH c.user
+        LEFT JOIN FETCH c.items i
+        LEFT JOIN FETCH i.product
+        WHERE c.id = :id
+        """)
+    Optional<Cart> findWithItemsById(@Param("id") Long id);
+
+    // The user's cart, row-locked until the transaction ends (checkout), so the cart sweeper skips it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cart c WHERE c.user.id = :userId")
+    Optional<Cart> findForUpdateByUserId(@Param("userId") Long userId);
+
+    // Oldest carts whose row and lines are all untouched since the cutoff, locked for deletion.
+    // Carts another transaction holds (checkout, a line being written) are skipped, not waited for.
+    @Query(value = """
+        SELECT c.id FROM carts c
+        WHERE c.updated_at < :cutoff
+          AND NOT EXISTS (SELECT 1 FROM cart_items ci WHERE ci.cart_id = c.id AND ci.updated_at >= :cutoff)
+        ORDER BY c.updated_at
+        LIMIT :limit
+        FOR UPDATE OF c SKIP LOCKED
+        """, nativeQuery = true)
+    List<Long> lockIdleCartIds(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Query("SELECT c.user.id FROM Cart c WHERE c.id IN :ids")
+    List<Long> findUserIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Deletes the carts that no longer have lines
+    @Modifying
+    @Query("DELETE FROM Cart c WHERE c.id IN :ids AND NOT EXISTS (SELECT ci.id FROM CartItem ci WHERE ci.cart = c)")
+    int deleteEmptyByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,4 +27,8 @@ public interface CategoryRepo extends JpaRepository<Category, Long> {
     // For dropdowns/autocomplete
     @Query("SELECT c.id, c.name FROM Category c WHERE c.isActive = true AND LOWER(c.name) LIKE LOWER(CONCAT('%', :query, '%'))")
     List<Object[]> searchCategoryNames(@Param("query") String query);
+
+    // Batch lookup of names for product listings (id, name)
+    @Query("SELECT c.id, c.name FROM Category c WHERE c.id IN :ids")
+    List<Object[]> findNamesByIdIn(@Param("ids") Collection<Long> ids);
 }
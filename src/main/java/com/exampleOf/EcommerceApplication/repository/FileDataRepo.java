@@ -2,12 +2,14 @@ package com.exampleOf.EcommerceApplication.repository;
 
 import com.exampleOf.EcommerceApplication.entity.FileData;
 import com.exampleOf.EcommerceApplication.entity.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,4 +37,20 @@ public interface FileDataRepo extends JpaRepository<FileData, Long> {
     @Query("SELECT MAX(f.sortOrder) FROM FileData f WHERE f.product.id = :productId")
     Integer findMaxSortOrderByProductId(@Param("productId") Long productId);
 
+    // Images of a page of products in one query (product id, image)
+    @Query("SELECT f.product.id, f FROM FileData f WHERE f.product.id IN :productIds ORDER BY f.id")
+    List<Object[]> findWithProductIdByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    // Active image paths of the given products, best thumbnail candidate first per product (product id, path)
+    @Query("""
+        SELECT f.product.id, f.filePath FROM FileData f
+        WHERE f.isActive = true AND f.product.id IN :productIds
+        ORDER BY f.product.id, f.isPrimary DESC, f.sortOrder, f.id
+        """)
+    List<Object[]> findImagePathsByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    // Products that have at least one active image, walked in id order for index builds
+    @Query("SELECT DISTINCT f.product.id FROM FileData f WHERE f.isActive = true AND f.product.id > :afterId ORDER BY f.product.id")
+    List<Long> findProductIdsWithImagesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
 }
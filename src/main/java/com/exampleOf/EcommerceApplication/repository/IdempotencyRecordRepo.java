@@ -0,0 +1,42 @@
+package com.exampleOf.EcommerceApplication.repository;
+
+import com.exampleOf.EcommerceApplication.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepo extends JpaRepository<IdempotencyRecord, String> {
+
+    // Claims the key: 1 if this caller inserted it, 0 if someone already holds it
+    @Modifying
+    @Query(value = """
+        INSERT IGNORE INTO idempotency_keys (idempotency_key, user_id, created_at)
+        VALUES (:key, :userId, :now)
+        """, nativeQuery = true)
+    int claim(@Param("key") String key, @Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    // Takes over a claim whose owner never finished (crashed mid-checkout)
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.createdAt = :now "
+            + "WHERE r.idempotencyKey = :key AND r.response IS NULL AND r.createdAt < :staleBefore")
+    int takeOver(@Param("key") String key, @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.response = :response, r.orderId = :orderId, r.completedAt = :now "
+            + "WHERE r.idempotencyKey = :key")
+    int complete(@Param("key") String key, @Param("orderId") Long orderId,
+                 @Param("response") String response, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.response IS NULL")
+    int release(@Param("key") String key);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,38 @@
+package com.exampleOf.EcommerceApplication.repository;
+
+import com.exampleOf.EcommerceApplication.entity.OrderEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderEventRepo extends JpaRepository<OrderEvent, Long> {
+
+    // Oldest unpublished events; not locked, since they are sent to the sinks outside any transaction
+    @Query(value = """
+        SELECT * FROM order_events
+        WHERE published_at IS NULL
+        ORDER BY id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<OrderEvent> findUnpublished(@Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OrderEvent e SET e.publishedAt = :now WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    long countByPublishedAtIsNull();
+
+    @Query("SELECT MIN(e.createdAt) FROM OrderEvent e WHERE e.publishedAt IS NULL")
+    LocalDateTime findOldestUnpublishedCreatedAt();
+
+    @Modifying
+    @Query("DELETE FROM OrderEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -4,8 +4,12 @@ import com.exampleOf.EcommerceApplication.entity.Order;
 import com.exampleOf.EcommerceApplication.entity.OrderItem;
 import com.exampleOf.EcommerceApplication.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +19,26 @@ public interface OrderItemRepo extends JpaRepository<OrderItem, Long> {
     List<OrderItem> findByOrder(Order order);
     void deleteByOrderAndProduct(Order order, Product product); // Optional: for direct deletion
 
+    // Items of a page of orders in one query, from order_items alone
+    // (order id, item id, product id, product name, product image, quantity, price, total price)
+    @Query("""
+        SELECT oi.order.id, oi.id, oi.product.id, oi.productName, oi.productImage, oi.quantity, oi.price, oi.totalPrice
+        FROM OrderItem oi
+        WHERE oi.order.id IN :orderIds
+        ORDER BY oi.order.id, oi.id
+        """)
+    List<Object[]> findRowsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    // Fills the name/image snapshot of lines created before it existed, a batch at a time
+    @Modifying
+    @Query(value = """
+        UPDATE order_items oi
+        SET oi.product_name = COALESCE((SELECT p.name FROM products p WHERE p.id = oi.product_id), ''),
+            oi.product_image = (SELECT f.file_path FROM file_data f WHERE f.product_id = oi.product_id AND f.is_active = TRUE
+                                ORDER BY f.is_primary DESC, f.sort_order, f.id LIMIT 1)
+        WHERE oi.product_name IS NULL
+        LIMIT :batchSize
+        """, nativeQuery = true)
+    int backfillProductSnapshots(@Param("batchSize") int batchSize);
+
 }
@@ -20,6 +20,26 @@ public interface OrderRepo extends JpaRepository<Order, Long> {
     // ✅ USER ORDERS
     List<Order> findByUserId(Long userId);
     Page<Order> findByUserId(Long userId, Pageable pageable);
+    List<Order> findByUserIdOrderByCreatedAtDescIdDesc(Long userId);
+
+    // ✅ ORDER HISTORY (summary columns only, newest first, keyset on (created_at, id))
+    @Query("""
+        SELECT o.id, o.orderNumber, o.status, o.totalAmount, o.createdAt FROM Order o
+        WHERE o.user.id = :userId
+        ORDER BY o.createdAt DESC, o.id DESC
+        """)
+    List<Object[]> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("""
+        SELECT o.id, o.orderNumber, o.status, o.totalAmount, o.createdAt FROM Order o
+        WHERE o.user.id = :userId
+          AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id))
+        ORDER BY o.createdAt DESC, o.id DESC
+        """)
+    List<Object[]> findSummariesByUserIdBefore(@Param("userId") Long userId,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id,
+                                               Pageable pageable);
 
     // ✅ STATUS-BASED
     List<Order> findByStatus(OrderStatus status);
@@ -69,4 +89,8 @@ public interface OrderRepo extends JpaRepository<Order, Long> {
     // ✅ RECENT ORDERS
     @Query("SELECT o FROM Order o WHERE o.user.id = :userId ORDER BY o.createdAt DESC")
     List<Order> findRecentOrdersByUser(@Param("userId") Long userId, Pageable pageable);
+
+    // Current status alone, for status watchers
+    @Query("SELECT o.status FROM Order o WHERE o.id = :id")
+    Optional<OrderStatus> findStatusById(@Param("id") Long id);
 }
@@ -0,0 +1,26 @@
+package com.exampleOf.EcommerceApplication.repository;
+
+import com.exampleOf.EcommerceApplication.entity.ProductActivity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductActivityRepo extends JpaRepository<ProductActivity, Long> {
+
+    // Single-statement insert-or-update (save() would SELECT each row first)
+    @Modifying
+    @Query(value = """
+        INSERT INTO product_activity (product_id, view_score, sales_score, decayed_at)
+        VALUES (:productId, :viewScore, :salesScore, :decayedAt)
+        ON DUPLICATE KEY UPDATE view_score = VALUES(view_score),
+                                sales_score = VALUES(sales_score),
+                                decayed_at = VALUES(decayed_at)
+        """, nativeQuery = true)
+    void upsert(@Param("productId") Long productId,
+                @Param("viewScore") Double viewScore,
+                @Param("salesScore") Double salesScore,
+                @Param("decayedAt") Long decayedAt);
+}
@@ -2,16 +2,27 @@ package com.exampleOf.EcommerceApplication.repository;
 
 import com.exampleOf.EcommerceApplication.entity.Product;
 import com.exampleOf.EcommerceApplication.enums.ProductStatus;
+import com.exampleOf.EcommerceApplication.enums.VendorStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepo extends JpaRepository<Product, Long> {
@@ -49,6 +60,55 @@ public interface ProductRepo extends JpaRepository<Product, Long> {
             "LOWER(p.brand) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     Page<Product> searchProducts(@Param("keyword") String keyword, Pageable pageable);
 
+    // ✅ KEYSET (SEEK) PAGINATION - no OFFSET scan and no COUNT query
+    Window<Product> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+    Window<Product> findByCategoryId(Long categoryId, ScrollPosition position, Sort sort, Limit limit);
+    Window<Product> findByVendorId(Long vendorId, ScrollPosition position, Sort sort, Limit limit);
+
+    @Query("SELECT p FROM Product p WHERE p.id > :afterId AND (" +
+            "LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(p.brand) LIKE LOWER(CONCAT('%', :keyword, '%'))) ORDER BY p.id")
+    List<Product> searchProductsAfter(@Param("keyword") String keyword, @Param("afterId") Long afterId, Pageable pageable);
+
+    // ✅ CATALOG EXPORT (forward-only cursor; needs useCursorFetch on the MySQL URL)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAll();
+
+    // ✅ SEARCH INDEX LOADING (keyset batches ordered by id)
+    @Query("SELECT p.id, p.name, p.brand, p.description FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findSearchFieldsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // ✅ SUGGEST INDEX LOADING
+    @Query("""
+        SELECT p.id, p.name, p.brand, c.id, c.name, s.id, s.name, p.salesCount, p.viewCount
+        FROM Product p
+        LEFT JOIN p.category c
+        LEFT JOIN p.subCategory s
+        WHERE p.status = :status AND p.id > :afterId
+        ORDER BY p.id
+        """)
+    List<Object[]> findSuggestFieldsAfter(@Param("afterId") Long afterId,
+                                          @Param("status") ProductStatus status,
+                                          Pageable pageable);
+
+    // ✅ FACET INDEX LOADING
+    @Query("""
+        SELECT p.id, p.name, p.brand, p.price, p.stock, p.rating, p.isFeatured, p.salesCount, p.viewCount,
+               p.createdAt, c.id, c.name, s.id, v.id
+        FROM Product p
+        JOIN p.vendor v
+        LEFT JOIN p.category c
+        LEFT JOIN p.subCategory s
+        WHERE p.status = :status AND v.vendorStatus = :vendorStatus AND p.id > :afterId
+        ORDER BY p.id
+        """)
+    List<Object[]> findFacetFieldsAfter(@Param("afterId") Long afterId,
+                                        @Param("status") ProductStatus status,
+                                        @Param("vendorStatus") VendorStatus vendorStatus,
+                                        Pageable pageable);
+
     // ✅ ADVANCED SEARCH WITH MULTIPLE FIELDS
     @Query("""
         SELECT p FROM Product p 
@@ -112,23 +172,103 @@ public interface ProductRepo extends JpaRepository<Product, Long> {
             @Param("inStock") Boolean inStock,
             Pageable pageable);
 
-    // ✅ TRENDING PRODUCTS (OPTIMIZED)
+    // ✅ FACET COUNTS (database fallback while the facet index is not built); each facet skips its own filter
+    @Query("""
+        SELECT MIN(TRIM(p.brand)), COUNT(p) FROM Product p
+        WHERE (:categoryId IS NULL OR p.category.id = :categoryId)
+        AND (:subCategoryId IS NULL OR p.subCategory.id = :subCategoryId)
+        AND (:minPrice IS NULL OR p.price >= :minPrice)
+        AND (:maxPrice IS NULL OR p.price <= :maxPrice)
+        AND (:minRating IS NULL OR p.rating >= :minRating)
+        AND (:inStock IS NULL OR (:inStock = true AND p.stock > 0) OR (:inStock = false AND p.stock = 0))
+        AND p.status = 'ACTIVE'
+        AND p.vendor.vendorStatus = 'ACTIVE'
+        AND p.brand IS NOT NULL AND TRIM(p.brand) <> ''
+        GROUP BY LOWER(TRIM(p.brand))
+        """)
+    List<Object[]> countBrandsByFilters(
+            @Param("categoryId") Long categoryId,
+            @Param("subCategoryId") Long subCategoryId,
+            @Param("minPrice") Double minPrice,
+            @Param("maxPrice") Double maxPrice,
+            @Param("minRating") Double minRating,
+            @Param("inStock") Boolean inStock);
+
+    @Query("""
+        SELECT p.category.id, p.category.name, COUNT(p) FROM Product p
+        WHERE (:subCategoryId IS NULL OR p.subCategory.id = :subCategoryId)
+        AND (:minPrice IS NULL OR p.price >= :minPrice)
+        AND (:maxPrice IS NULL OR p.price <= :maxPrice)
+        AND (:brand IS NULL OR LOWER(p.brand) LIKE LOWER(CONCAT('%', :brand, '%')))
+        AND (:minRating IS NULL OR p.rating >= :minRating)
+        AND (:inStock IS NULL OR (:inStock = true AND p.stock > 0) OR (:inStock = false AND p.stock = 0))
+        AND p.status = 'ACTIVE'
+        AND p.vendor.vendorStatus = 'ACTIVE'
+        GROUP BY p.category.id, p.category.name
+        """)
+    List<Object[]> countCategoriesByFilters(
+            @Param("subCategoryId") Long subCategoryId,
+            @Param("minPrice") Double minPrice,
+            @Param("maxPrice") Double maxPrice,
+            @Param("brand") String brand,
+            @Param("minRating") Double minRating,
+            @Param("inStock") Boolean inStock);
+
+    @Query("""
+        SELECT MIN(p.price), MAX(p.price) FROM Product p
+        WHERE (:categoryId IS NULL OR p.category.id = :categoryId)
+        AND (:subCategoryId IS NULL OR p.subCategory.id = :subCategoryId)
+        AND (:minPrice IS NULL OR p.price >= :minPrice)
+        AND (:maxPrice IS NULL OR p.price <= :maxPrice)
+        AND (:brand IS NULL OR LOWER(p.brand) LIKE LOWER(CONCAT('%', :brand, '%')))
+        AND (:minRating IS NULL OR p.rating >= :minRating)
+        AND (:inStock IS NULL OR (:inStock = true AND p.stock > 0) OR (:inStock = false AND p.stock = 0))
+        AND p.status = 'ACTIVE'
+        AND p.vendor.vendorStatus = 'ACTIVE'
+        """)
+    List<Object[]> findPriceRangeByFilters(
+            @Param("categoryId") Long categoryId,
+            @Param("subCategoryId") Long subCategoryId,
+            @Param("minPrice") Double minPrice,
+            @Param("maxPrice") Double maxPrice,
+            @Param("brand") String brand,
+            @Param("minRating") Double minRating,
+            @Param("inStock") Boolean inStock);
+
+    // ✅ TRENDING PRODUCTS (database fallback while the leaderboard is not built)
     @Query(value = """
         SELECT p.* FROM products p
         JOIN vendors v ON p.vendor_id = v.id
         WHERE p.status = 'ACTIVE' 
         AND p.stock > 0
         AND v.vendor_status = 'ACTIVE'
+        AND (:categoryId IS NULL OR p.category_id = :categoryId)
         ORDER BY 
             (COALESCE(p.rating, 0) * 0.3 + 
              COALESCE(p.sales_count, 0) * 0.4 + 
              COALESCE(p.view_count, 0) * 0.2 + 
              COALESCE(p.admin_boost, 0) * 0.1 +
-             CASE WHEN p.created_at > CURRENT_DATE - INTERVAL '30' DAY THEN 0.1 ELSE 0 END) DESC,
+             CASE WHEN p.created_at > :recentSince THEN 0.1 ELSE 0 END) DESC,
             p.created_at DESC
         LIMIT :limit
         """, nativeQuery = true)
-    List<Product> findTrendingProducts(@Param("limit") int limit);
+    List<Product> findTrendingProducts(@Param("categoryId") Long categoryId,
+                                       @Param("recentSince") LocalDateTime recentSince,
+                                       @Param("limit") int limit);
+
+    // ✅ TRENDING LEADERBOARD LOADING
+    @Query("""
+        SELECT p.id, c.id, p.rating, p.adminBoost, p.createdAt, p.stock
+        FROM Product p
+        JOIN p.vendor v
+        LEFT JOIN p.category c
+        WHERE p.status = :status AND v.vendorStatus = :vendorStatus AND p.id > :afterId
+        ORDER BY p.id
+        """)
+    List<Object[]> findTrendingFieldsAfter(@Param("afterId") Long afterId,
+                                           @Param("status") ProductStatus status,
+                                           @Param("vendorStatus") VendorStatus vendorStatus,
+                                           Pageable pageable);
 
     // ✅ BEST SELLING PRODUCTS
     @Query("""
@@ -202,13 +342,22 @@ public interface ProductRepo extends JpaRepository<Product, Long> {
     @Query("UPDATE Product p SET p.viewCount = COALESCE(p.viewCount, 0) + 1 WHERE p.id = :productId")
     void incrementViewCount(@Param("productId") Long productId);
 
+    // Batched write-behind of buffered views, one statement for every product with the same delta
+    @Modifying
+    @Query("UPDATE Product p SET p.viewCount = COALESCE(p.viewCount, 0) + :delta WHERE p.id IN :productIds")
+    int addViewCount(@Param("productIds") Collection<Long> productIds, @Param("delta") int delta);
+
     @Modifying
     @Query("UPDATE Product p SET p.salesCount = COALESCE(p.salesCount, 0) + :quantity WHERE p.id = :productId")
     void incrementSalesCount(@Param("productId") Long productId, @Param("quantity") int quantity);
 
+    // InventoryLedger write-behind: one statement for every product with the same net delta
     @Modifying
-    @Query("UPDATE Product p SET p.stock = p.stock - :quantity WHERE p.id = :productId AND p.stock >= :quantity")
-    int decreaseStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+    @Query("UPDATE Product p SET p.stock = p.stock + :delta WHERE p.id IN :productIds")
+    int addStock(@Param("productIds") Collection<Long> productIds, @Param("delta") int delta);
+
+    @Query("SELECT p.stock FROM Product p WHERE p.id = :productId")
+    Integer findStockById(@Param("productId") Long productId);
 
     // ✅ STATISTICS
     Long countByStatus(ProductStatus status);
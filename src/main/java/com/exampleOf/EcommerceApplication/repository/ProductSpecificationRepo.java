@@ -2,8 +2,11 @@ package com.exampleOf.EcommerceApplication.repository;
 
 import com.exampleOf.EcommerceApplication.entity.ProductSpecification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,4 +19,8 @@ public interface ProductSpecificationRepo extends JpaRepository<ProductSpecifica
 
     // Find specification by product and key
     List<ProductSpecification> findByProductIdAndKey(Long productId, String key);
+
+    // Specifications of a page of products in one query (product id, specification)
+    @Query("SELECT s.product.id, s FROM ProductSpecification s WHERE s.product.id IN :productIds ORDER BY s.id")
+    List<Object[]> findWithProductIdByProductIdIn(@Param("productIds") Collection<Long> productIds);
 }
@@ -3,8 +3,11 @@ package com.exampleOf.EcommerceApplication.repository;
 
 import com.exampleOf.EcommerceApplication.entity.SubCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,4 +17,8 @@ public interface SubCategoryRepo extends JpaRepository<SubCategory, Long> {
 
     // Find sub-category by name and category
     List<SubCategory> findByCategoryIdAndName(Long categoryId, String name);
+
+    // Batch lookup of names for product listings (id, name)
+    @Query("SELECT s.id, s.name FROM SubCategory s WHERE s.id IN :ids")
+    List<Object[]> findNamesByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -2,8 +2,11 @@ package com.exampleOf.EcommerceApplication.repository;
 
 import com.exampleOf.EcommerceApplication.entity.Vendor;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +17,8 @@ public interface VendorRepository extends JpaRepository<Vendor, Long> {
     List<Vendor> findByApprovedTrue();
     List<Vendor> findByApprovedFalse();
     boolean existsByTaxNumber(String taxNumber);
+
+    // Batch lookup of shop names for product listings (id, shopName)
+    @Query("SELECT v.id, v.shopName FROM Vendor v WHERE v.id IN :ids")
+    List<Object[]> findShopNamesByIdIn(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -4,16 +4,16 @@ import com.exampleOf.EcommerceApplication.dto.requestdto.CartItemRequestDTO;
 import com.exampleOf.EcommerceApplication.dto.responsedto.CartItemResponseDTO;
 import com.exampleOf.EcommerceApplication.entity.Cart;
 import com.exampleOf.EcommerceApplication.entity.CartItem;
-import com.exampleOf.EcommerceApplication.entity.FileData;
 import com.exampleOf.EcommerceApplication.entity.Product;
 import com.exampleOf.EcommerceApplication.repository.CartItemRepo;
 import com.exampleOf.EcommerceApplication.repository.CartRepo;
 import com.exampleOf.EcommerceApplication.repository.ProductRepo;
+import com.exampleOf.EcommerceApplication.util.FlowTrace;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -21,10 +21,13 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class CartItemService {
 
+    private static final String DEFAULT_PRODUCT_IMAGE = "/images/default-product.png";
 
     private final CartItemRepo cartItemRepo;
     private final CartRepo cartRepo;
     private final ProductRepo productRepo;
+    private final PrimaryImageIndex primaryImageIndex;
+    private final HotCartCache hotCartCache;
 
 
     public boolean existsById(Long id) {
@@ -33,9 +36,6 @@ public class CartItemService {
 
 
     public CartItemResponseDTO addItemToCart(CartItemRequestDTO requestDTO) {
-        System.out.println("🛒 === BACKEND DEBUG START ===");
-        System.out.println("📥 Received request: " + requestDTO);
-
         Cart cart = cartRepo.findById(requestDTO.getCartId())
                 .orElseThrow(() -> new EntityNotFoundException("Cart not found with ID: " + requestDTO.getCartId()));
 
@@ -52,7 +52,7 @@ public class CartItemService {
             // Update existing item
             existingItem.setQuantity(existingItem.getQuantity() + requestDTO.getQuantity());
             savedItem = cartItemRepo.save(existingItem);
-            System.out.println("🔄 Updated existing item - ID: " + savedItem.getId());
+            FlowTrace.event("cart {} line {} quantity now {}", cart.getId(), savedItem.getId(), savedItem.getQuantity());
         } else {
             // Create new cart item
             CartItem newItem = new CartItem();
@@ -62,16 +62,13 @@ public class CartItemService {
             newItem.setPricePerItem(product.getPrice());
 
             savedItem = cartItemRepo.save(newItem);
-            System.out.println("✅ Created new item - ID: " + savedItem.getId());
+            FlowTrace.event("cart {} new line {} for product {}", cart.getId(), savedItem.getId(), product.getId());
         }
 
-        // Convert to DTO
-        CartItemResponseDTO responseDTO = toDto(savedItem);
-        System.out.println("📤 Sending response: " + responseDTO);
-        System.out.println("📤 Response ID: " + responseDTO.getId());
-        System.out.println("🛒 === BACKEND DEBUG END ===\n");
+        hotCartCache.evict(cart.getId());
 
-        return responseDTO;
+        // Convert to DTO
+        return toDto(savedItem);
     }
 
     // ✅ READ: Get cart item by ID
@@ -81,11 +78,14 @@ public class CartItemService {
         return toDto(cartItem);
     }
 
-    // ✅ READ: Get all cart items for a specific cart
+    // ✅ READ: Get all cart items for a specific cart (hot-cart cache)
     public List<CartItemResponseDTO> getCartItemsByCartId(Long cartId) {
-        List<CartItem> cartItems = cartItemRepo.findByCartId(cartId);
-        return cartItems.stream()
-                .map(this::toDto)
+        HotCartCache.Snapshot cart = hotCartCache.get(cartId);
+        if (cart == null) {
+            return new ArrayList<>();
+        }
+        return cart.lines().values().stream()
+                .map(line -> toDto(cartId, line))
                 .collect(Collectors.toList());
     }
 
@@ -108,6 +108,7 @@ public class CartItemService {
 
         cartItem.setQuantity(newQuantity);
         CartItem updated = cartItemRepo.save(cartItem);
+        hotCartCache.evict(updated.getCart().getId());
         return toDto(updated);
     }
 
@@ -131,15 +132,18 @@ public class CartItemService {
         }
 
         CartItem updated = cartItemRepo.save(cartItem);
+        hotCartCache.evict(updated.getCart().getId());
         return toDto(updated);
     }
 
     public String deleteCartItem(Long id) {
-        if (!cartItemRepo.existsById(id)) {
+        CartItem cartItem = cartItemRepo.findById(id).orElse(null);
+        if (cartItem == null) {
             return "⚠️ Cart item with ID " + id + " not found!";
         }
 
-        cartItemRepo.deleteById(id);
+        cartItemRepo.delete(cartItem);
+        hotCartCache.evict(cartItem.getCart().getId());
         return "✅ Cart item deleted successfully!";
     }
 
@@ -150,6 +154,7 @@ public class CartItemService {
                 .orElseThrow(() -> new EntityNotFoundException("CartItem not found for cart ID: " + cartId + " and product ID: " + productId));
 
         cartItemRepo.delete(cartItem);
+        hotCartCache.evict(cartId);
         return "Cart item deleted successfully!";
     }
 
@@ -158,32 +163,25 @@ public class CartItemService {
         List<CartItem> cartItems = cartItemRepo.findByCartId(cartId);
         if (!cartItems.isEmpty()) {
             cartItemRepo.deleteAll(cartItems);
+            hotCartCache.evict(cartId);
             return "All cart items cleared successfully!";
         }
         return "Cart is already empty!";
     }
 
-    // ✅ COUNT: Get total items count in cart
+    // ✅ COUNT: Get total items count in cart (hot-cart cache, summed by the database otherwise)
     public Integer getCartItemsCount(Long cartId) {
-        List<CartItem> cartItems = cartItemRepo.findByCartId(cartId);
-        return cartItems.stream()
-                .mapToInt(CartItem::getQuantity)
-                .sum();
+        HotCartCache.Snapshot cart = hotCartCache.get(cartId);
+        return cart != null ? cart.totalItems() : (int) cartItemRepo.sumQuantityByCartId(cartId);
     }
 
-    // ✅ CALCULATE: Get subtotal for cart
+    // ✅ CALCULATE: Get subtotal for cart (hot-cart cache, summed by the database otherwise)
     public Double getCartSubtotal(Long cartId) {
-        List<CartItem> cartItems = cartItemRepo.findByCartId(cartId);
-        return cartItems.stream()
-                .mapToDouble(item -> item.getTotalPrice().doubleValue())
-                .sum();
+        HotCartCache.Snapshot cart = hotCartCache.get(cartId);
+        return (cart != null ? cart.totalPrice() : cartItemRepo.sumTotalPriceByCartId(cartId)).doubleValue();
     }
 
     public CartItemResponseDTO toDto(CartItem cartItem) {
-        System.out.println("🔧 Converting CartItem to DTO:");
-        System.out.println("   CartItem ID: " + cartItem.getId());
-        System.out.println("   CartItem exists: " + (cartItem != null));
-
         CartItemResponseDTO dto = new CartItemResponseDTO();
         dto.setId(cartItem.getId());
         dto.setProductId(cartItem.getProduct().getId());
@@ -192,31 +190,25 @@ public class CartItemService {
         dto.setQuantity(cartItem.getQuantity());
         dto.setTotalPrice(cartItem.getTotalPrice());
         dto.setCartId(cartItem.getCart().getId());
-        dto.setProductImage(getProductImageUrl(cartItem.getProduct()));
-
-        System.out.println("   DTO ID: " + dto.getId());
-        System.out.println("   🔧 Conversion complete");
+        String image = primaryImageIndex.primaryImage(cartItem.getProduct().getId());
+        dto.setProductImage(image != null ? image : DEFAULT_PRODUCT_IMAGE);
 
         return dto;
     }
 
-    // ✅ REUSABLE HELPER METHOD (Same as in OrderService)
-    private String getProductImageUrl(Product product) {
-        if (product.getImages() == null || product.getImages().isEmpty()) {
-            return "/images/default-product.png"; // Default image
-        }
-
-        // Priority: Primary image > Sorted image > First image
-        return product.getImages().stream()
-                .filter(image -> Boolean.TRUE.equals(image.getIsPrimary()))
-                .findFirst()
-                .map(FileData::getFilePath)
-                .orElseGet(() ->
-                        product.getImages().stream()
-                                .min(Comparator.comparing(FileData::getSortOrder))
-                                .map(FileData::getFilePath)
-                                .orElse(product.getImages().get(0).getFilePath())
-                );
+    // Same response from a cached cart line
+    public CartItemResponseDTO toDto(Long cartId, HotCartCache.Line line) {
+        CartItemResponseDTO dto = new CartItemResponseDTO();
+        dto.setId(line.itemId());
+        dto.setProductId(line.productId());
+        dto.setProductName(line.productName());
+        dto.setPricePerItem(line.pricePerItem());
+        dto.setQuantity(line.quantity());
+        dto.setTotalPrice(line.totalPrice());
+        dto.setCartId(cartId);
+        String image = primaryImageIndex.primaryImage(line.productId());
+        dto.setProductImage(image != null ? image : DEFAULT_PRODUCT_IMAGE);
+        return dto;
     }
 
     // ✅ CONVERT: DTO to Entity (for internal use)
@@ -238,13 +230,17 @@ public class CartItemService {
 
     // ✅ CHECK: If product exists in cart
     public boolean isProductInCart(Long cartId, Long productId) {
-        return cartItemRepo.findByCartIdAndProductId(cartId, productId).isPresent();
+        HotCartCache.Snapshot cart = hotCartCache.get(cartId);
+        return cart != null && cart.line(productId) != null;
     }
 
     // ✅ GET: CartItem by cart and product
     public CartItemResponseDTO getCartItemByCartAndProduct(Long cartId, Long productId) {
-        CartItem cartItem = cartItemRepo.findByCartIdAndProductId(cartId, productId)
-                .orElseThrow(() -> new EntityNotFoundException("CartItem not found for cart ID: " + cartId + " and product ID: " + productId));
-        return toDto(cartItem);
+        HotCartCache.Snapshot cart = hotCartCache.get(cartId);
+        HotCartCache.Line line = cart != null ? cart.line(productId) : null;
+        if (line == null) {
+            throw new EntityNotFoundException("CartItem not found for cart ID: " + cartId + " and product ID: " + productId);
+        }
+        return toDto(cartId, line);
     }
 }
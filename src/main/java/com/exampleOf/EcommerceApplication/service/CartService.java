@@ -1,46 +1,65 @@
 package com.exampleOf.EcommerceApplication.service;
 
+import com.exampleOf.EcommerceApplication.Exception.CustomException.BadRequestException;
+import com.exampleOf.EcommerceApplication.dto.requestdto.CartBulkUpdateRequestDTO;
 import com.exampleOf.EcommerceApplication.dto.requestdto.CartItemRequestDTO;
 import com.exampleOf.EcommerceApplication.dto.requestdto.CartRequestDTO;
 import com.exampleOf.EcommerceApplication.dto.responsedto.CartItemResponseDTO;
 import com.exampleOf.EcommerceApplication.dto.responsedto.CartResponseDTO;
 import com.exampleOf.EcommerceApplication.entity.Cart;
+import com.exampleOf.EcommerceApplication.entity.CartItem;
 import com.exampleOf.EcommerceApplication.entity.Product;
 import com.exampleOf.EcommerceApplication.entity.User;
+import com.exampleOf.EcommerceApplication.enums.CartLineAction;
+import com.exampleOf.EcommerceApplication.repository.CartItemRepo;
 import com.exampleOf.EcommerceApplication.repository.CartRepo;
 import com.exampleOf.EcommerceApplication.repository.ProductRepo;
 import com.exampleOf.EcommerceApplication.repository.UserRepository;
+import com.exampleOf.EcommerceApplication.util.FlowTrace;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class CartService {
+
+    private static final int MAX_BULK_OPERATIONS = 500;
+
     private final CartRepo cartRepo;
+    private final CartItemRepo cartItemRepo;
     private final UserRepository userRepo;
     private final CartItemService cartItemService;
     private final ProductRepo productRepo;
+    private final HotCartCache hotCartCache;
 
 
 
     // ✅ FIXED: Get or Create Cart for User (Prevents duplicates)
     public Cart getOrCreateCart(Long userId) {
         return cartRepo.findByUserId(userId)
-                .orElseGet(() -> {
-                    User user = userRepo.findById(userId)
-                            .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + userId));
-                    Cart newCart = new Cart();
-                    newCart.setUser(user);
-                    newCart.setTotalPrice(BigDecimal.ZERO);
-                    return cartRepo.save(newCart);
-                });
+                .orElseGet(() -> newCart(userId));
+    }
+
+    // ✅ The user's cart locked until the caller's transaction ends (checkout), so CartSweeper cannot
+    // delete it underneath. Never creates one: checkout rejects a missing cart without writing anything
+    public Optional<Cart> lockCart(Long userId) {
+        return cartRepo.findForUpdateByUserId(userId);
+    }
+
+    private Cart newCart(Long userId) {
+        User user = userRepo.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + userId));
+        Cart newCart = new Cart();
+        newCart.setUser(user);
+        newCart.setTotalPrice(BigDecimal.ZERO);
+        return cartRepo.save(newCart);
     }
 
     // ✅ FIXED: Create Cart with duplicate check
@@ -55,44 +74,56 @@ public class CartService {
     }
 
     // ✅ NEW: Get Cart by User ID (Most important method!)
+    // Served from the hot-cart cache while the cart is in use. A user without a cart (new, or their idle
+    // cart was deleted by CartSweeper) gets a new empty one, so clients learn the current cart id here
+    @Transactional
     public CartResponseDTO getCartByUser(Long userId) {
-        Cart cart = cartRepo.findByUserId(userId)
-                .orElseThrow(() -> new EntityNotFoundException("Cart not found for user ID: " + userId));
+        HotCartCache.Snapshot cart = hotCartCache.getByUser(userId);
+        if (cart == null) {
+            return toDto(hotCartCache.putAfterCommit(getOrCreateCart(userId)));
+        }
         return toDto(cart);
     }
 
     // ✅ FIXED: Consistent total calculation
     public CartResponseDTO toDto(Cart cart) {
+        return toDto(HotCartCache.snapshot(cart));
+    }
+
+    public CartResponseDTO toDto(HotCartCache.Snapshot cart) {
         CartResponseDTO dto = new CartResponseDTO();
-        dto.setId(cart.getId());
-        dto.setUserName(cart.getUser().getFullName());
-        dto.setTotalItems(cart.getTotalItems()); // Use entity method
-        dto.setTotalPrice(cart.getTotalPrice()); // Use entity field (already calculated)
-
-        // Convert CartItems to DTOs
-        List<CartItemResponseDTO> itemDTOs = cart.getItems().stream()
-                .map(cartItemService::toDto)
+        dto.setId(cart.cartId());
+        dto.setUserName(cart.userName());
+        dto.setTotalItems(cart.totalItems());
+        dto.setTotalPrice(cart.totalPrice());
+
+        // Convert cart lines to DTOs
+        List<CartItemResponseDTO> itemDTOs = cart.lines().values().stream()
+                .map(line -> cartItemService.toDto(cart.cartId(), line))
                 .collect(Collectors.toList());
         dto.setItems(itemDTOs);
+        FlowTrace.event("cart {} rendered with {} lines", cart.cartId(), itemDTOs.size());
 
         return dto;
     }
 
     // ✅ NEW: Clear cart (keep cart, remove items)
     public CartResponseDTO clearCart(Long cartId) {
-        Cart cart = cartRepo.findById(cartId)
+        Cart cart = cartRepo.findWithItemsById(cartId)
                 .orElseThrow(() -> new EntityNotFoundException("Cart not found"));
 
-        cart.getItems().clear();
-        cart.setTotalPrice(BigDecimal.ZERO);
-        Cart saved = cartRepo.save(cart);
-        return toDto(saved);
+        // Managed cart: the flush deletes the orphaned lines, nothing else needs saving
+        cart.clearItems();
+        return toDto(hotCartCache.putAfterCommit(cart));
     }
 
     // ➤ Get Cart by ID
+    @Transactional(readOnly = true)
     public CartResponseDTO getCartById(Long id) {
-        Cart cart = cartRepo.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Cart not found with ID: " + id));
+        HotCartCache.Snapshot cart = hotCartCache.get(id);
+        if (cart == null) {
+            throw new EntityNotFoundException("Cart not found with ID: " + id);
+        }
         return toDto(cart);
     }
 
@@ -106,6 +137,8 @@ public class CartService {
         Cart cart = cartRepo.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Cart not found with ID: " + id));
         cartRepo.delete(cart);
+        hotCartCache.evict(id);
+        hotCartCache.evictUser(cart.getUser().getId());
         return "Cart deleted successfully.";
     }
 
@@ -120,24 +153,136 @@ public class CartService {
 
     // ✅ Add item to cart
     public CartResponseDTO addItemToCart(Long cartId, CartItemRequestDTO itemRequest) {
-        Cart cart = cartRepo.findById(cartId)
+        Cart cart = cartRepo.findWithItemsById(cartId)
                 .orElseThrow(() -> new EntityNotFoundException("Cart not found"));
 
         Product product = productRepo.findById(itemRequest.getProductId())
                 .orElseThrow(() -> new EntityNotFoundException("Product not found"));
 
-        cart.addItem(product, itemRequest.getQuantity());
-        Cart saved = cartRepo.save(cart);
-        return toDto(saved);
+        // Only the changed line is written: persisted here if new, otherwise flushed as one UPDATE
+        CartItem item = cart.addItem(product, itemRequest.getQuantity());
+        if (item.getId() == null) {
+            cartItemRepo.save(item);
+        }
+        return toDto(hotCartCache.putAfterCommit(cart));
     }
 
     // ✅ Update item quantity
     public CartResponseDTO updateCartItemQuantity(Long cartId, Long productId, Integer quantity) {
-        Cart cart = cartRepo.findById(cartId)
+        Cart cart = cartRepo.findWithItemsById(cartId)
                 .orElseThrow(() -> new EntityNotFoundException("Cart not found"));
 
         cart.updateItemQuantity(productId, quantity);
-        Cart saved = cartRepo.save(cart);
-        return toDto(saved);
+        return toDto(hotCartCache.putAfterCommit(cart));
+    }
+
+    // ✅ Bulk update: many line changes, one cart load, one product IN query, batched writes
+    public CartResponseDTO applyBulkUpdate(Long cartId, CartBulkUpdateRequestDTO request) {
+        List<CartBulkUpdateRequestDTO.Operation> operations = request.getOperations();
+        if (operations == null || operations.isEmpty()) {
+            throw new BadRequestException("No cart operations given");
+        }
+        if (operations.size() > MAX_BULK_OPERATIONS) {
+            throw new BadRequestException("At most " + MAX_BULK_OPERATIONS + " cart operations per request");
+        }
+
+        Cart cart = cartRepo.findWithItemsById(cartId)
+                .orElseThrow(() -> new EntityNotFoundException("Cart not found"));
+
+        // Every product an operation may add, in one IN query
+        Set<Long> productIds = new HashSet<>();
+        for (CartBulkUpdateRequestDTO.Operation operation : operations) {
+            validate(operation);
+            if (operation.getAction() != CartLineAction.REMOVE) {
+                productIds.add(operation.getProductId());
+            }
+        }
+        Map<Long, Product> products = new HashMap<>();
+        if (!productIds.isEmpty()) {
+            for (Product product : productRepo.findAllById(productIds)) {
+                products.put(product.getId(), product);
+            }
+        }
+
+        FlowTrace.event("cart {} bulk update: {} operations, {} products loaded",
+                cartId, operations.size(), products.size());
+        // Net effect per product first, so the cart is changed once per product and all removals
+        // compact the line list in a single pass
+        Map<Long, NetChange> changes = new LinkedHashMap<>();
+        for (CartBulkUpdateRequestDTO.Operation operation : operations) {
+            NetChange change = changes.computeIfAbsent(operation.getProductId(), productId ->
+                    new NetChange(cart.findItemByProductId(productId).map(CartItem::getQuantity).orElse(0)));
+            switch (operation.getAction()) {
+                case ADD -> change.quantity += operation.getQuantity();
+                case SET -> {
+                    change.quantity = operation.getQuantity();
+                    change.removed |= change.quantity == 0;
+                }
+                case REMOVE -> {
+                    change.quantity = 0;
+                    change.removed = true;
+                }
+            }
+        }
+
+        // A line removed and added back in the same request is a new line at today's price, as before
+        List<Long> removals = new ArrayList<>();
+        changes.forEach((productId, change) -> {
+            if (cart.findItemByProductId(productId).isPresent() && (change.quantity == 0 || change.removed)) {
+                removals.add(productId);
+            }
+        });
+        cart.removeItemsByProductIds(removals);
+        changes.forEach((productId, change) -> {
+            if (change.quantity == 0) {
+                return;
+            }
+            if (cart.findItemByProductId(productId).isPresent()) {
+                cart.updateItemQuantity(productId, change.quantity);
+            } else {
+                cart.addItem(product(products, productId), change.quantity);
+            }
+        });
+
+        // New lines still in the cart are persisted together; the flush sends inserts, updates and
+        // orphan deletes as JDBC batches
+        List<CartItem> newItems = cart.getItems().stream().filter(item -> item.getId() == null).toList();
+        if (!newItems.isEmpty()) {
+            cartItemRepo.saveAll(newItems);
+        }
+        return toDto(hotCartCache.putAfterCommit(cart));
+    }
+
+    // Where a bulk update leaves one product's line
+    private static final class NetChange {
+        private int quantity;
+        private boolean removed;
+
+        private NetChange(int quantity) {
+            this.quantity = quantity;
+        }
+    }
+
+    private static void validate(CartBulkUpdateRequestDTO.Operation operation) {
+        if (operation.getAction() == null || operation.getProductId() == null) {
+            throw new BadRequestException("Every cart operation needs an action and a productId");
+        }
+        if (operation.getAction() == CartLineAction.REMOVE) {
+            return;
+        }
+        Integer quantity = operation.getQuantity();
+        boolean valid = quantity != null
+                && (operation.getAction() == CartLineAction.SET ? quantity >= 0 : quantity > 0);
+        if (!valid) {
+            throw new BadRequestException("Invalid quantity " + quantity + " for product " + operation.getProductId());
+        }
+    }
+
+    private static Product product(Map<Long, Product> products, Long productId) {
+        Product product = products.get(productId);
+        if (product == null) {
+            throw new EntityNotFoundException("Product not found with ID: " + productId);
+        }
+        return product;
     }
 }
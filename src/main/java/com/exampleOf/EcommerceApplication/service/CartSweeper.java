@@ -0,0 +1,147 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.dto.responsedto.CartSweepStatsDTO;
+import com.exampleOf.EcommerceApplication.repository.CartItemRepo;
+import com.exampleOf.EcommerceApplication.repository.CartRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes carts nobody has touched for the idle period, lines first, a bounded batch per transaction.
+ * A sweep fixes its cutoff when it starts and runs one batch per tick until a batch comes back short;
+ * the tick delay is the pause between batches, so row locks are held briefly and no scheduler thread
+ * is put to sleep. Then it waits for the sweep interval.
+ * Checkout locks its cart row (CartService.lockCart) and batches skip locked carts, so a cart
+ * being checked out is never swept. A cart deleted here is recreated empty when its user next reads
+ * their cart (GET /api/carts/user/{userId}) or adds an item by userId; requests that still carry the
+ * deleted cart id get a 404 and should read the user's cart again to learn the new id.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CartSweeper {
+
+    private final CartRepo cartRepo;
+    private final CartItemRepo cartItemRepo;
+    private final HotCartCache hotCartCache;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${cart.sweeper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cart.sweeper.idle-days:30}")
+    private long idleDays;
+
+    @Value("${cart.sweeper.batch-size:500}")
+    private int batchSize;
+
+    @Value("${cart.sweeper.interval-ms:3600000}")
+    private long intervalMs;
+
+    private final AtomicLong sweepCount = new AtomicLong();
+    private final AtomicLong cartsDeleted = new AtomicLong();
+    private final AtomicLong itemsDeleted = new AtomicLong();
+    private final AtomicLong failedBatchCount = new AtomicLong();
+
+    // Current sweep; only the scheduler thread writes these
+    private volatile LocalDateTime cutoff;
+    private LocalDateTime startedAt;
+    private long startedAtMs;
+    private volatile long nextSweepAtMs;
+    private int batches;
+    private long carts;
+    private long items;
+
+    private volatile Summary last;
+
+    @Scheduled(fixedDelayString = "${cart.sweeper.pause-ms:500}", initialDelayString = "${cart.sweeper.initial-delay-ms:60000}")
+    public void sweep() {
+        if (!enabled || (cutoff == null && System.currentTimeMillis() < nextSweepAtMs)) {
+            return;
+        }
+        if (cutoff == null) {
+            startedAtMs = System.currentTimeMillis();
+            startedAt = LocalDateTime.now();
+            cutoff = LocalDateTime.now().minusDays(idleDays);
+            batches = 0;
+            carts = 0;
+            items = 0;
+        }
+        int locked;
+        try {
+            locked = sweepBatch(cutoff);
+        } catch (RuntimeException ex) {
+            // Most likely a lock conflict with a cart write; the next sweep picks these carts up again
+            failedBatchCount.incrementAndGet();
+            log.warn("Cart sweep batch failed, ending this sweep early", ex);
+            locked = 0;
+        }
+        if (locked < batchSize) {
+            finishSweep();
+        }
+    }
+
+    // Returns how many carts were locked; fewer than batchSize means no idle carts are left
+    private int sweepBatch(LocalDateTime cutoff) {
+        Batch batch = transactionTemplate.execute(status -> {
+            List<Long> cartIds = cartRepo.lockIdleCartIds(cutoff, batchSize);
+            if (cartIds.isEmpty()) {
+                return new Batch(cartIds, List.of(), 0, 0);
+            }
+            List<Long> userIds = cartRepo.findUserIdsByIdIn(cartIds);
+            // Lines written since the lock query read them survive, and so does their cart
+            int deletedItems = cartItemRepo.deleteIdleByCartIdIn(cartIds, cutoff);
+            int deletedCarts = cartRepo.deleteEmptyByIdIn(cartIds);
+            return new Batch(cartIds, userIds, deletedCarts, deletedItems);
+        });
+        if (batch == null || batch.cartIds().isEmpty()) {
+            return 0;
+        }
+        hotCartCache.evict(batch.cartIds());
+        batch.userIds().forEach(hotCartCache::evictUser);
+        batches++;
+        carts += batch.carts();
+        items += batch.items();
+        cartsDeleted.addAndGet(batch.carts());
+        itemsDeleted.addAndGet(batch.items());
+        return batch.cartIds().size();
+    }
+
+    private void finishSweep() {
+        long durationMs = System.currentTimeMillis() - startedAtMs;
+        last = new Summary(startedAt, cutoff, durationMs, batches, carts, items);
+        sweepCount.incrementAndGet();
+        if (carts > 0 || items > 0) {
+            log.info("Cart sweep deleted {} carts and {} items idle since {} in {} batches, {} ms",
+                    carts, items, cutoff, batches, durationMs);
+        }
+        cutoff = null;
+        nextSweepAtMs = startedAtMs + intervalMs;
+    }
+
+    public CartSweepStatsDTO stats() {
+        Summary summary = last;
+        return new CartSweepStatsDTO(cutoff != null, sweepCount.get(), cartsDeleted.get(), itemsDeleted.get(),
+                failedBatchCount.get(),
+                summary != null ? summary.startedAt() : null,
+                summary != null ? summary.cutoff() : null,
+                summary != null ? summary.durationMs() : null,
+                summary != null ? summary.batches() : null,
+                summary != null ? summary.carts() : null,
+                summary != null ? summary.items() : null);
+    }
+
+    private record Batch(List<Long> cartIds, List<Long> userIds, int carts, int items) {
+    }
+
+    private record Summary(LocalDateTime startedAt, LocalDateTime cutoff, long durationMs, int batches, long carts, long items) {
+    }
+}
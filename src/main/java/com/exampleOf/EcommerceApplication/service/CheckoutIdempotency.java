@@ -0,0 +1,152 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.Exception.CustomException.AlreadyExistsException;
+import com.exampleOf.EcommerceApplication.Exception.CustomException.BadRequestException;
+import com.exampleOf.EcommerceApplication.dto.responsedto.OrderResponseDTO;
+import com.exampleOf.EcommerceApplication.entity.IdempotencyRecord;
+import com.exampleOf.EcommerceApplication.repository.IdempotencyRecordRepo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling for checkout. A repeated key gets the response of the first checkout
+ * back without going near the cart or stock: from a bounded in-memory cache, or from the
+ * idempotency_keys table after a restart or on another instance. Duplicates that arrive while the
+ * first one is still running wait for it instead of starting their own. Failed checkouts are not
+ * remembered, so the client may retry them with the same key.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CheckoutIdempotency {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepo idempotencyRecordRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${checkout.idempotency.cache-size:10000}")
+    private long cacheSize;
+
+    @Value("${checkout.idempotency.retention-hours:24}")
+    private long retentionHours;
+
+    // A claim older than this with no response belongs to a checkout that died and may be taken over
+    @Value("${checkout.idempotency.stale-after-ms:120000}")
+    private long staleAfterMs;
+
+    private Cache<String, OrderResponseDTO> completed;
+    private final Map<String, CompletableFuture<OrderResponseDTO>> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofHours(retentionHours))
+                .build();
+    }
+
+    public OrderResponseDTO checkout(Long userId, String clientKey, Supplier<OrderResponseDTO> checkout) {
+        if (clientKey.isBlank() || clientKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String key = userId + ":" + clientKey;
+
+        OrderResponseDTO cached = completed.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Concurrent duplicates on this instance share the first caller's execution
+        CompletableFuture<OrderResponseDTO> mine = new CompletableFuture<>();
+        CompletableFuture<OrderResponseDTO> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException runtime ? runtime : ex;
+            }
+        }
+        try {
+            OrderResponseDTO result = execute(key, userId, checkout);
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private OrderResponseDTO execute(String key, Long userId, Supplier<OrderResponseDTO> checkout) {
+        LocalDateTime now = LocalDateTime.now();
+        Boolean claimed = transactionTemplate.execute(status -> idempotencyRecordRepo.claim(key, userId, now) == 1
+                || idempotencyRecordRepo.takeOver(key, now, now.minus(Duration.ofMillis(staleAfterMs))) == 1);
+
+        if (!Boolean.TRUE.equals(claimed)) {
+            IdempotencyRecord record = idempotencyRecordRepo.findById(key).orElse(null);
+            if (record != null && record.getResponse() != null) {
+                OrderResponseDTO stored = read(record.getResponse());
+                completed.put(key, stored);
+                return stored;
+            }
+            // Running elsewhere (another instance), or it just failed and released the key
+            throw new AlreadyExistsException("A checkout with this Idempotency-Key is already in progress, retry shortly");
+        }
+
+        OrderResponseDTO result;
+        try {
+            result = checkout.get();
+        } catch (RuntimeException ex) {
+            transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepo.release(key));
+            throw ex;
+        }
+
+        completed.put(key, result);
+        try {
+            String json = objectMapper.writeValueAsString(result);
+            transactionTemplate.executeWithoutResult(status ->
+                    idempotencyRecordRepo.complete(key, result.getId(), json, LocalDateTime.now()));
+        } catch (JsonProcessingException | RuntimeException ex) {
+            // The order exists and its cart is empty, so a late retry cannot place it twice either way
+            log.error("Could not store the checkout response for idempotency key {}", key, ex);
+        }
+        return result;
+    }
+
+    private OrderResponseDTO read(String json) {
+        try {
+            return objectMapper.readValue(json, OrderResponseDTO.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored checkout response is unreadable", ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${checkout.idempotency.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        Integer deleted = transactionTemplate.execute(status ->
+                idempotencyRecordRepo.deleteCreatedBefore(LocalDateTime.now().minusHours(retentionHours)));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} expired idempotency keys", deleted);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.dto.responsedto.OrderResponseDTO;
+import com.exampleOf.EcommerceApplication.util.FlowTrace;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Group commit for checkouts. Requests wait in a queue for at most a few milliseconds and are then
+ * placed together in one transaction: one commit (and one log fsync) for the whole group, one
+ * DELETE for all of its carts, and stock confirmed in the inventory ledger, which merges the
+ * decrements per product before writing them. A checkout that is rejected (empty cart, no stock)
+ * fails on its own without touching the others. If the shared transaction itself fails, or a member
+ * fails after it already reserved stock and wrote its order (which only a rollback can undo), every
+ * member is retried in its own transaction, so one bad order never takes the group down with it.
+ * A request the worker has not picked up when its caller times out is cancelled and skipped, so a
+ * checkout reported as timed out before processing never places an order later.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CheckoutPipeline {
+
+    private final OrderService orderService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${checkout.pipeline.enabled:true}")
+    private boolean enabled;
+
+    @Value("${checkout.pipeline.max-batch:64}")
+    private int maxBatch;
+
+    @Value("${checkout.pipeline.linger-ms:5}")
+    private long lingerMs;
+
+    @Value("${checkout.pipeline.timeout-ms:30000}")
+    private long timeoutMs;
+
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private volatile boolean running = true;
+    private Thread worker;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        worker = new Thread(this::run, "checkout-pipeline");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.join(timeoutMs);
+        }
+        Request request;
+        while ((request = queue.poll()) != null) {
+            request.result.completeExceptionally(new RuntimeException("Checkout is shutting down, please retry"));
+        }
+    }
+
+    public OrderResponseDTO checkout(Long userId, Long addressId) {
+        if (!enabled || !running) {
+            return orderService.checkout(userId, addressId);
+        }
+        Request request = new Request(userId, addressId, FlowTrace.current(), new CompletableFuture<>(), new AtomicInteger(PENDING));
+        queue.add(request);
+        try {
+            return request.result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            throw unwrap(ex);
+        } catch (TimeoutException ex) {
+            if (request.cancel()) {
+                throw new RuntimeException("Checkout timed out before it was processed, no order was placed");
+            }
+            // Already in a group transaction: its outcome is only a commit away
+            return awaitClaimed(request);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            request.cancel();
+            throw new RuntimeException("Checkout interrupted");
+        }
+    }
+
+    private OrderResponseDTO awaitClaimed(Request request) {
+        try {
+            return request.result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            throw unwrap(ex);
+        } catch (TimeoutException ex) {
+            throw new RuntimeException("Checkout timed out, please check your orders before retrying");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Checkout interrupted");
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException ex) {
+        return ex.getCause() instanceof RuntimeException runtime ? runtime : new RuntimeException(ex.getCause());
+    }
+
+    // ==================== WORKER ====================
+
+    private void run() {
+        List<Request> carried = new ArrayList<>();
+        while (running || !queue.isEmpty() || !carried.isEmpty()) {
+            try {
+                List<Request> batch = new ArrayList<>(carried);
+                carried.clear();
+                if (batch.isEmpty()) {
+                    Request first = queue.poll(1, TimeUnit.SECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                }
+                // Give concurrent checkouts a moment to join the group
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < maxBatch) {
+                    Request next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                // A second checkout of the same cart waits for the next group, where it sees the cart emptied
+                Set<Long> users = new HashSet<>();
+                List<Request> group = new ArrayList<>(batch.size());
+                for (Request request : batch) {
+                    if (!users.add(request.userId)) {
+                        carried.add(request);
+                    } else if (request.claim()) {
+                        group.add(request);
+                    }
+                    // Otherwise its caller timed out and was told no order was placed
+                }
+                if (!group.isEmpty()) {
+                    process(group);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Checkout pipeline iteration failed", ex);
+            }
+        }
+    }
+
+    private void process(List<Request> group) {
+        Map<Request, OrderResponseDTO> placed = new LinkedHashMap<>();
+        Map<Request, RuntimeException> rejected = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Long> cartIds = new ArrayList<>(group.size());
+                for (Request request : group) {
+                    // The request's trace (if sampled) follows it onto this worker thread
+                    try (FlowTrace.Scope scope = FlowTrace.resume(request.traceId)) {
+                        FlowTrace.event("checkout user {} in a group of {}", request.userId, group.size());
+                        OrderService.PlacedOrder order = orderService.placeOrderFromCart(request.userId, request.addressId);
+                        placed.put(request, order.order());
+                        cartIds.add(order.cartId());
+                    } catch (OrderService.WritesFailedException ex) {
+                        // Its reservation and rows are in the shared transaction: roll the whole group back
+                        throw ex;
+                    } catch (RuntimeException ex) {
+                        rejected.put(request, ex);
+                    }
+                }
+                orderService.clearCarts(cartIds);
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Group checkout of {} orders failed, placing them one by one", group.size(), ex);
+            for (Request request : group) {
+                try {
+                    request.result.complete(orderService.checkout(request.userId, request.addressId));
+                } catch (RuntimeException single) {
+                    request.result.completeExceptionally(single);
+                }
+            }
+            return;
+        }
+        placed.forEach((request, order) -> request.result.complete(order));
+        rejected.forEach((request, ex) -> request.result.completeExceptionally(ex));
+        if (log.isDebugEnabled()) {
+            log.debug("Group checkout committed {} orders, rejected {}", placed.size(), rejected.size());
+        }
+    }
+
+    private static final int PENDING = 0;
+    private static final int CLAIMED = 1;
+    private static final int CANCELLED = 2;
+
+    // state moves from PENDING to exactly one of CLAIMED (the worker) or CANCELLED (the timed-out caller)
+    private record Request(Long userId, Long addressId, String traceId, CompletableFuture<OrderResponseDTO> result,
+                           AtomicInteger state) {
+
+        boolean claim() {
+            return state.compareAndSet(PENDING, CLAIMED);
+        }
+
+        boolean cancel() {
+            return state.compareAndSet(PENDING, CANCELLED);
+        }
+    }
+}
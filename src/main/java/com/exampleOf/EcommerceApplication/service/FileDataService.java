@@ -25,6 +25,8 @@ import java.util.UUID;
 public class FileDataService {
     private final FileDataRepo fileDataRepo;
     private final ProductRepo productRepo;
+    private final ProductDetailCache productDetailCache;
+    private final PrimaryImageIndex primaryImageIndex;
 
     // -------------------- Remove Image from Product -------------------- //
     @Transactional
@@ -61,6 +63,8 @@ public class FileDataService {
             // Soft delete the file data (assuming you have isActive field in Base class)
             fileData.setIsActive(false);
             fileDataRepo.save(fileData);
+            productDetailCache.invalidate(productId);
+            primaryImageIndex.refreshAfterCommit(productId);
 
             // Alternatively, if you want hard delete:
             // fileDataRepo.delete(fileData);
@@ -102,6 +106,8 @@ public class FileDataService {
             // Set the new primary image
             newPrimaryImage.setIsPrimary(true);
             FileData updatedPrimary = fileDataRepo.save(newPrimaryImage);
+            productDetailCache.invalidate(productId);
+            primaryImageIndex.refreshAfterCommit(productId);
 
             return updatedPrimary;
 
@@ -143,7 +149,10 @@ public class FileDataService {
                 fileData.setIsPrimary(true);
             }
 
-            return fileDataRepo.save(fileData);
+            FileData saved = fileDataRepo.save(fileData);
+            productDetailCache.invalidate(productId);
+            primaryImageIndex.refreshAfterCommit(productId);
+            return saved;
         } catch (Exception ex) {
             throw new OperationFailedException("Add image to product", ex.getMessage());
         }
@@ -183,6 +192,8 @@ public class FileDataService {
                 image.setSortOrder(i);
                 fileDataRepo.save(image);
             }
+            productDetailCache.invalidate(productId);
+            primaryImageIndex.refreshAfterCommit(productId);
         } catch (Exception ex) {
             throw new OperationFailedException("Reorder images", ex.getMessage());
         }
@@ -217,9 +228,12 @@ public class FileDataService {
                 throw new OperationFailedException("File at index " + i + " is empty","");
             }
 
-            FileData fileData = saveFileToSystem(file, product, altTexts, sortOrders, isPrimary, i);
-            uploadedImages.add(fileDataRepo.save(fileData));
+            uploadedImages.add(saveFileToSystem(file, product, altTexts, sortOrders, isPrimary, i));
         }
+        // Pooled ids: the rows go out as one JDBC batch
+        uploadedImages = fileDataRepo.saveAll(uploadedImages);
+        productDetailCache.invalidate(productId);
+        primaryImageIndex.refreshAfterCommit(productId);
 
         return uploadedImages;
     }
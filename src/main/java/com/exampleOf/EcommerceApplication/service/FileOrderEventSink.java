@@ -0,0 +1,46 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.dto.responsedto.OrderEventDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Appends events as JSON lines to a file; enabled by setting order.events.file-sink.path
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "order.events.file-sink.path")
+public class FileOrderEventSink implements OrderEventSink {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    public FileOrderEventSink(@Value("${order.events.file-sink.path}") String path, ObjectMapper objectMapper) {
+        this.path = Path.of(path);
+        this.objectMapper = objectMapper;
+        log.info("Order events are appended to {}", this.path.toAbsolutePath());
+    }
+
+    @Override
+    public synchronized void publish(List<OrderEventDTO> events) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OrderEventDTO event : events) {
+                writer.write(objectMapper.writeValueAsString(event));
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.entity.Cart;
+import com.exampleOf.EcommerceApplication.entity.CartItem;
+import com.exampleOf.EcommerceApplication.entity.Product;
+import com.exampleOf.EcommerceApplication.repository.CartRepo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact snapshots of active carts, so cart, item, count, subtotal and exists reads stop going to
+ * MySQL while someone is shopping. A snapshot holds only what the responses need (no entities,
+ * no image lists; thumbnails come from {@link PrimaryImageIndex} when a response is built).
+ * Writes still go straight to carts/cart_items. The changed cart's snapshot is replaced when
+ * CartService made the change, and dropped for any other write. Either way this happens after
+ * commit, so checkout and other instances always read committed rows.
+ * A product save only drops the carts whose lines show a different name, found through a
+ * product id → cart ids index instead of a scan over every snapshot.
+ * Carts not read for the idle TTL are evicted and load from the database again on the next read.
+ */
+@Component
+@RequiredArgsConstructor
+public class HotCartCache implements ProductChangeListener {
+
+    private final CartRepo cartRepo;
+
+    @Value("${cart.cache.idle-ttl-minutes:30}")
+    private long idleTtlMinutes;
+
+    @Value("${cart.cache.max-carts:100000}")
+    private long maxCarts;
+
+    private Cache<Long, Snapshot> carts;
+    private Cache<Long, Long> cartIdByUser;
+
+    // Carts whose cached snapshot has a line for the product. May hold a few extra ids, which are
+    // dropped when checked; every cached line is in it once its put returns. Sets change only in compute.
+    private final Map<Long, Set<Long>> cartIdsByProduct = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        carts = Caffeine.newBuilder()
+                .maximumSize(maxCarts)
+                .expireAfterAccess(Duration.ofMinutes(idleTtlMinutes))
+                .evictionListener((Long cartId, Snapshot snapshot, RemovalCause cause) -> {
+                    if (cartId != null && snapshot != null) {
+                        unindex(cartId, snapshot.lines().keySet());
+                    }
+                })
+                .build();
+        cartIdByUser = Caffeine.newBuilder()
+                .maximumSize(maxCarts)
+                .expireAfterAccess(Duration.ofMinutes(idleTtlMinutes))
+                .build();
+    }
+
+    // Snapshot of a cart, or null if it does not exist
+    public Snapshot get(Long cartId) {
+        boolean[] loaded = new boolean[1];
+        Snapshot snapshot = carts.get(cartId, id -> {
+            loaded[0] = true;
+            return cartRepo.findWithItemsById(id).map(HotCartCache::snapshot).orElse(null);
+        });
+        if (loaded[0] && snapshot != null) {
+            index(snapshot);
+        }
+        return snapshot;
+    }
+
+    // Snapshot of a user's cart, or null if the user has none
+    public Snapshot getByUser(Long userId) {
+        Long cartId = cartIdByUser.get(userId, id -> cartRepo.findIdByUserId(id).orElse(null));
+        return cartId != null ? get(cartId) : null;
+    }
+
+    // ==================== WRITES ====================
+
+    // Snapshot of the cart as changed by this transaction; it replaces the cached one on commit
+    public Snapshot putAfterCommit(Cart cart) {
+        Snapshot snapshot = snapshot(cart);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            carts.invalidate(cart.getId());
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        cache(snapshot);
+                    } else {
+                        carts.invalidate(snapshot.cartId());
+                    }
+                }
+            });
+        } else {
+            cache(snapshot);
+        }
+        return snapshot;
+    }
+
+    // Drops the snapshots now and again once the transaction ends, so a concurrent load cannot keep old rows
+    public void evict(Collection<Long> cartIds) {
+        carts.invalidateAll(cartIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Long> ids = List.copyOf(cartIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    carts.invalidateAll(ids);
+                }
+            });
+        }
+    }
+
+    public void evict(Long cartId) {
+        evict(List.of(cartId));
+    }
+
+    public void evictUser(Long userId) {
+        cartIdByUser.invalidate(userId);
+    }
+
+    // ==================== HOOKS ====================
+
+    // Lines show the product name, so carts showing an old name are reloaded; other saves leave them be
+    @Override
+    public void onProductSaved(Product product) {
+        evictContaining(product.getId(), product.getName());
+    }
+
+    @Override
+    public void onProductDeleted(Long productId) {
+        evictContaining(productId, null);
+    }
+
+    // Drops the cached carts holding the product under another name (any name when it is null)
+    private void evictContaining(Long productId, String currentName) {
+        List<Long> stale = new ArrayList<>();
+        cartIdsByProduct.computeIfPresent(productId, (key, cartIds) -> {
+            cartIds.removeIf(cartId -> {
+                Snapshot snapshot = carts.policy().getIfPresentQuietly(cartId);
+                Line line = snapshot != null ? snapshot.line(productId) : null;
+                if (line != null && currentName != null && currentName.equals(line.productName())) {
+                    return false;
+                }
+                if (line != null) {
+                    stale.add(cartId);
+                }
+                return true;
+            });
+            return cartIds.isEmpty() ? null : cartIds;
+        });
+        // Outside the compute, so the cache never runs a listener while a product's set is held
+        carts.invalidateAll(stale);
+    }
+
+    // Cached first, indexed second: a concurrent check either sees the new snapshot or runs before the add
+    private void cache(Snapshot snapshot) {
+        carts.put(snapshot.cartId(), snapshot);
+        index(snapshot);
+    }
+
+    private void index(Snapshot snapshot) {
+        for (Long productId : snapshot.lines().keySet()) {
+            cartIdsByProduct.compute(productId, (key, cartIds) -> {
+                Set<Long> ids = cartIds != null ? cartIds : new HashSet<>();
+                ids.add(snapshot.cartId());
+                return ids;
+            });
+        }
+    }
+
+    // An evicted snapshot's lines leave the index unless the cart is cached again with that product
+    private void unindex(Long cartId, Collection<Long> productIds) {
+        for (Long productId : productIds) {
+            cartIdsByProduct.computeIfPresent(productId, (key, cartIds) -> {
+                Snapshot current = carts.policy().getIfPresentQuietly(cartId);
+                if (current == null || current.line(productId) == null) {
+                    cartIds.remove(cartId);
+                }
+                return cartIds.isEmpty() ? null : cartIds;
+            });
+        }
+    }
+
+    // ==================== SNAPSHOT ====================
+
+    public static Snapshot snapshot(Cart cart) {
+        Map<Long, Line> lines = new LinkedHashMap<>(Math.max(16, cart.getItems().size() * 2));
+        long cents = 0;
+        int quantity = 0;
+        for (CartItem item : cart.getItems()) {
+            lines.put(item.getProduct().getId(), new Line(item.getId(), item.getProduct().getId(),
+                    item.getProduct().getName(), item.getPricePerItem(), item.getQuantity()));
+            cents += item.totalCents();
+            quantity += item.getQuantity();
+        }
+        // Totals from the lines themselves: CartItemService writes lines without touching carts.total_price
+        return new Snapshot(cart.getId(), cart.getUser() != null ? cart.getUser().getFullName() : null,
+                Collections.unmodifiableMap(lines), quantity, BigDecimal.valueOf(cents, 2));
+    }
+
+    // Lines keyed by product id, in cart order
+    public record Snapshot(Long cartId, String userName, Map<Long, Line> lines, int totalItems, BigDecimal totalPrice) {
+
+        public Line line(Long productId) {
+            return lines.get(productId);
+        }
+    }
+
+    public record Line(Long itemId, Long productId, String productName, BigDecimal pricePerItem, int quantity) {
+
+        public BigDecimal totalPrice() {
+            return pricePerItem.multiply(BigDecimal.valueOf(quantity));
+        }
+    }
+}
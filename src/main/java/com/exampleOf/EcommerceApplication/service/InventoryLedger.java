@@ -0,0 +1,318 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.repository.ProductRepo;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Available stock per product, held in memory and split over a few striped counters so concurrent
+ * checkouts on one hot product do not all CAS the same word or queue on its row lock.
+ * A product is loaded from products.stock the first time it is touched. Checkouts take
+ * time-limited reservations that are confirmed when their transaction commits and handed back
+ * when it rolls back or the reservation expires. Confirmed changes are written to the products
+ * table as net deltas by a scheduled flush, so products.stock lags the ledger by one flush interval.
+ * An order commits before its stock delta is flushed. A clean shutdown flushes what is left, but if
+ * the process dies in between, those decrements are lost: products.stock stays too high by the units
+ * sold in the last flush interval (product.inventory.flush-interval-ms), and the ledger reloads that
+ * value after a restart, so those units can be sold again. Keep the interval short, and after a crash
+ * reconcile products.stock against the orders placed just before it.
+ * The ledger is the owner of stock for this instance: running several instances needs a shared store.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryLedger {
+
+    private final ProductRepo productRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductChangePublisher productChangePublisher;
+
+    @Value("${product.inventory.stripes:8}")
+    private int stripeCount;
+
+    @Value("${product.inventory.reservation-ttl-ms:120000}")
+    private long reservationTtlMs;
+
+    @Value("${product.inventory.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Reservation> reservations = new ConcurrentHashMap<>();
+    private final AtomicLong reservationIds = new AtomicLong();
+
+    // ==================== RESERVATIONS ====================
+
+    /**
+     * Reserves every line or none of them. Inside a transaction the reservation is confirmed on
+     * commit and released on rollback; without one it is confirmed straight away.
+     */
+    public void reserveForTransaction(Map<Long, Integer> quantities) {
+        Reservation reservation = reserve(quantities);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (reservations.remove(reservation.id, reservation)) {
+                confirm(reservation);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new ReservationSync(reservation));
+    }
+
+    // Stock coming back (cancelled orders, smaller order lines) is only returned once committed
+    public void restockAfterCommit(Map<Long, Integer> quantities) {
+        afterCommit(() -> quantities.forEach((productId, quantity) -> {
+            Entry entry = entry(productId);
+            entry.add(quantity);
+            entry.unflushed.addAndGet(quantity);
+        }));
+    }
+
+    // Absolute stock from a product edit, applied on commit; units held by open reservations are not part of it
+    public void setStockAfterCommit(Long productId, int stock) {
+        afterCommit(() -> {
+            Entry entry = entry(productId);
+            synchronized (entry) {
+                int delta = stock - entry.available();
+                if (delta >= 0) {
+                    entry.add(delta);
+                } else {
+                    delta = -entry.drain(-delta);
+                }
+                entry.unflushed.addAndGet(delta);
+            }
+        });
+    }
+
+    // Ledger value if the product is loaded, otherwise the stored stock passed in
+    public Integer available(Long productId, Integer stored) {
+        Entry entry = entries.get(productId);
+        return entry != null ? entry.available() : stored;
+    }
+
+    private Reservation reserve(Map<Long, Integer> quantities) {
+        Map<Long, Integer> taken = new TreeMap<>();
+        for (Map.Entry<Long, Integer> line : new TreeMap<>(quantities).entrySet()) {
+            Entry entry = entry(line.getKey());
+            if (!entry.take(line.getValue())) {
+                taken.forEach((productId, quantity) -> entry(productId).add(quantity));
+                throw new RuntimeException("Insufficient stock for product id: " + line.getKey()
+                        + ". Available: " + entry.available() + ", Requested: " + line.getValue());
+            }
+            taken.put(line.getKey(), line.getValue());
+        }
+        Reservation reservation = new Reservation(reservationIds.incrementAndGet(), taken,
+                System.currentTimeMillis() + reservationTtlMs);
+        reservations.put(reservation.id, reservation);
+        return reservation;
+    }
+
+    private void confirm(Reservation reservation) {
+        reservation.lines.forEach((productId, quantity) -> entry(productId).unflushed.addAndGet(-quantity));
+    }
+
+    private void giveBack(Reservation reservation) {
+        reservation.lines.forEach((productId, quantity) -> entry(productId).add(quantity));
+    }
+
+    @Scheduled(fixedDelayString = "${product.inventory.expiry-check-ms:5000}")
+    public void expireReservations() {
+        long now = System.currentTimeMillis();
+        int expired = 0;
+        for (Reservation reservation : reservations.values()) {
+            if (reservation.expiresAt <= now && reservations.remove(reservation.id, reservation)) {
+                giveBack(reservation);
+                expired++;
+            }
+        }
+        if (expired > 0) {
+            log.warn("Released {} expired stock reservations", expired);
+        }
+    }
+
+    // ==================== PERSIST ====================
+
+    @Scheduled(fixedDelayString = "${product.inventory.flush-interval-ms:2000}")
+    public synchronized void flush() {
+        Map<Long, Integer> deltas = new HashMap<>();
+        entries.forEach((productId, entry) -> {
+            int delta = entry.unflushed.getAndSet(0);
+            if (delta != 0) {
+                deltas.put(productId, delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<Integer, List<Long>> idsByDelta = new HashMap<>();
+            deltas.forEach((productId, delta) -> idsByDelta.computeIfAbsent(delta, d -> new ArrayList<>()).add(productId));
+            transactionTemplate.executeWithoutResult(status -> {
+                idsByDelta.forEach((delta, ids) -> {
+                    for (int from = 0; from < ids.size(); from += flushBatchSize) {
+                        productRepo.addStock(ids.subList(from, Math.min(from + flushBatchSize, ids.size())), delta);
+                    }
+                });
+            });
+        } catch (RuntimeException ex) {
+            // Keep the deltas for the next flush
+            deltas.forEach((productId, delta) -> entry(productId).unflushed.addAndGet(delta));
+            log.warn("Inventory flush failed for {} products, retrying next cycle", deltas.size(), ex);
+            return;
+        }
+
+        // Only the in-stock filters depend on stock; names, prices and images did not change
+        Map<Long, Integer> available = new HashMap<>();
+        deltas.keySet().forEach(productId -> available.put(productId, entry(productId).available()));
+        productChangePublisher.stockChanged(available);
+    }
+
+    @PreDestroy
+    public void drain() {
+        flush();
+    }
+
+    // ==================== HELPERS ====================
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private Entry entry(Long productId) {
+        return entries.computeIfAbsent(productId, id -> {
+            Integer stock = productRepo.findStockById(id);
+            if (stock == null) {
+                throw new RuntimeException("Product not found with id: " + id);
+            }
+            return new Entry(stock, stripeCount);
+        });
+    }
+
+    // ==================== TYPES ====================
+
+    /** Available units spread over stripes, plus the confirmed change not yet written to the table. */
+    private static final class Entry {
+        private final AtomicInteger[] stripes;
+        private final AtomicInteger unflushed = new AtomicInteger();
+
+        Entry(int stock, int stripeCount) {
+            stripes = new AtomicInteger[Math.max(1, stripeCount)];
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i] = new AtomicInteger(stock / stripes.length + (i < stock % stripes.length ? 1 : 0));
+            }
+        }
+
+        int available() {
+            int sum = 0;
+            for (AtomicInteger stripe : stripes) {
+                sum += stripe.get();
+            }
+            return sum;
+        }
+
+        void add(int quantity) {
+            stripes[home()].addAndGet(quantity);
+        }
+
+        // All or nothing. A stripe that covers the whole quantity is taken with one CAS; otherwise the
+        // stripes are drained under the entry lock, so a partial grab held for a moment can only be
+        // seen by takers that then queue on the same lock, never turned into a false "out of stock"
+        boolean take(int quantity) {
+            int home = home();
+            for (int i = 0; i < stripes.length; i++) {
+                AtomicInteger stripe = stripes[(home + i) % stripes.length];
+                int current;
+                while ((current = stripe.get()) >= quantity) {
+                    if (stripe.compareAndSet(current, current - quantity)) {
+                        return true;
+                    }
+                }
+            }
+            synchronized (this) {
+                int taken = drain(quantity);
+                if (taken == quantity) {
+                    return true;
+                }
+                add(taken);
+                return false;
+            }
+        }
+
+        // Takes up to the quantity, starting at this thread's stripe and moving on when one runs dry
+        int drain(int quantity) {
+            int home = home();
+            int taken = 0;
+            for (int i = 0; i < stripes.length && taken < quantity; i++) {
+                AtomicInteger stripe = stripes[(home + i) % stripes.length];
+                int current;
+                while ((current = stripe.get()) > 0) {
+                    int grab = Math.min(current, quantity - taken);
+                    if (stripe.compareAndSet(current, current - grab)) {
+                        taken += grab;
+                        break;
+                    }
+                }
+            }
+            return taken;
+        }
+
+        private int home() {
+            return (int) (Thread.currentThread().getId() % stripes.length);
+        }
+    }
+
+    private record Reservation(long id, Map<Long, Integer> lines, long expiresAt) {
+    }
+
+    /** Confirms the reservation with the transaction, or hands the units back if it does not commit. */
+    private final class ReservationSync implements TransactionSynchronization {
+        private final Reservation reservation;
+        private boolean claimed;
+
+        ReservationSync(Reservation reservation) {
+            this.reservation = reservation;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // Taking it out of the map stops the expiry sweep; if the sweep got there first, fail the commit
+            claimed = reservations.remove(reservation.id, reservation);
+            if (!claimed) {
+                throw new RuntimeException("Stock reservation expired before the order could be placed");
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (claimed) {
+                if (status == STATUS_COMMITTED) {
+                    confirm(reservation);
+                } else {
+                    giveBack(reservation);
+                }
+            } else if (reservations.remove(reservation.id, reservation)) {
+                giveBack(reservation);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.dto.responsedto.OrderItemResponseDTO;
+import com.exampleOf.EcommerceApplication.dto.responsedto.OrderResponseDTO;
+import com.exampleOf.EcommerceApplication.dto.responsedto.OrderSummaryDTO;
+import com.exampleOf.EcommerceApplication.entity.Order;
+import com.exampleOf.EcommerceApplication.enums.OrderStatus;
+import com.exampleOf.EcommerceApplication.repository.OrderItemRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Builds order DTOs for lists. The items of every order on the page are read with one query from
+ * order_items alone: product name and image come from the line snapshot, so neither products
+ * nor file_data is touched.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderDtoAssembler {
+
+    private static final int HYDRATION_CHUNK = 500;
+    private static final int PREVIEW_IMAGES = 3;
+
+    private final OrderItemRepo orderItemRepo;
+
+    // Full orders, items included
+    public List<OrderResponseDTO> toDtos(List<Order> orders) {
+        List<Long> orderIds = orders.stream().map(Order::getId).toList();
+        Map<Long, List<OrderItemResponseDTO>> items = loadItems(orderIds);
+
+        List<OrderResponseDTO> dtos = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            OrderResponseDTO dto = new OrderResponseDTO();
+            dto.setId(order.getId());
+            dto.setOrderNumber(order.getOrderNumber());
+            dto.setUserId(order.getUser().getId());
+            dto.setTotalAmount(order.getTotalAmount());
+            dto.setStatus(order.getStatus());
+            dto.setOrderDate(order.getCreatedAt());
+            dto.setShippingAddress(order.getShippingAddress());
+            dto.setItems(items.getOrDefault(order.getId(), new ArrayList<>()));
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    // Summary rows from OrderRepo.findSummariesByUserId*: (id, orderNumber, status, totalAmount, createdAt)
+    public List<OrderSummaryDTO> toSummaries(List<Object[]> rows) {
+        List<Long> orderIds = rows.stream().map(row -> (Long) row[0]).toList();
+        Map<Long, List<OrderItemResponseDTO>> items = loadItems(orderIds);
+
+        List<OrderSummaryDTO> summaries = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            List<OrderItemResponseDTO> orderItems = items.getOrDefault((Long) row[0], List.of());
+            OrderSummaryDTO summary = new OrderSummaryDTO();
+            summary.setId((Long) row[0]);
+            summary.setOrderNumber((String) row[1]);
+            summary.setStatus((OrderStatus) row[2]);
+            summary.setTotalAmount((BigDecimal) row[3]);
+            summary.setOrderDate((LocalDateTime) row[4]);
+            summary.setItemCount(orderItems.size());
+            summary.setTotalQuantity(orderItems.stream()
+                    .mapToInt(item -> item.getQuantity() != null ? item.getQuantity() : 0).sum());
+            summary.setPreviewImages(orderItems.stream()
+                    .map(OrderItemResponseDTO::getProductImage)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .limit(PREVIEW_IMAGES)
+                    .toList());
+            summaries.add(summary);
+        }
+        return summaries;
+    }
+
+    // ==================== HELPERS ====================
+
+    private Map<Long, List<OrderItemResponseDTO>> loadItems(List<Long> orderIds) {
+        Map<Long, List<OrderItemResponseDTO>> items = new HashMap<>();
+        for (int from = 0; from < orderIds.size(); from += HYDRATION_CHUNK) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + HYDRATION_CHUNK, orderIds.size()));
+            for (Object[] row : orderItemRepo.findRowsByOrderIdIn(chunk)) {
+                OrderItemResponseDTO item = new OrderItemResponseDTO();
+                item.setId((Long) row[1]);
+                item.setProductId((Long) row[2]);
+                item.setProductName((String) row[3]);
+                item.setProductImage((String) row[4]);
+                item.setQuantity((Integer) row[5]);
+                item.setPrice((BigDecimal) row[6]);
+                item.setTotalPrice((BigDecimal) row[7]);
+                items.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(item);
+            }
+        }
+        return items;
+    }
+}
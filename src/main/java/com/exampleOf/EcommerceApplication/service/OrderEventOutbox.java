@@ -0,0 +1,39 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.entity.Order;
+import com.exampleOf.EcommerceApplication.entity.OrderEvent;
+import com.exampleOf.EcommerceApplication.enums.OrderEventType;
+import com.exampleOf.EcommerceApplication.enums.OrderStatus;
+import com.exampleOf.EcommerceApplication.repository.OrderEventRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Writes order events into the order_events outbox. Must run inside the transaction that changes
+ * the order: the event commits or rolls back together with it, and {@link OrderEventRelay}
+ * publishes it afterwards.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderEventOutbox {
+
+    private final OrderEventRepo orderEventRepo;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Order order, OrderEventType type, OrderStatus previousStatus) {
+        OrderEvent event = new OrderEvent();
+        event.setType(type);
+        event.setOrderId(order.getId());
+        event.setOrderNumber(order.getOrderNumber());
+        event.setUserId(order.getUser() != null ? order.getUser().getId() : null);
+        event.setStatus(order.getStatus());
+        event.setPreviousStatus(previousStatus);
+        event.setTotalAmount(order.getTotalAmount());
+        event.setCreatedAt(LocalDateTime.now());
+        orderEventRepo.save(event);
+    }
+}
@@ -0,0 +1,172 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.dto.responsedto.OrderEventDTO;
+import com.exampleOf.EcommerceApplication.dto.responsedto.OrderEventRelayStatsDTO;
+import com.exampleOf.EcommerceApplication.entity.OrderEvent;
+import com.exampleOf.EcommerceApplication.repository.OrderEventRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the order_events outbox to every {@link OrderEventSink}, oldest first, a batch at a
+ * time. A batch is read without locks and handed to the sinks outside any transaction, so a blocking
+ * sink holds no row lock. It is marked published only once every sink has taken it; until then it is
+ * read again on the next run, so a failed sink or a restart never loses an event. Each sink remembers
+ * the event ids it already took from batches not yet marked, so a retry only resends to the sink that
+ * failed. After a restart, or with several instances relaying, a sink can see an event twice; the
+ * eventId lets it drop the duplicate.
+ * Lag is the time from an event being written to it being published.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderEventRelay {
+
+    private final OrderEventRepo orderEventRepo;
+    private final ObjectProvider<OrderEventSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${order.events.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.events.relay.batch-size:200}")
+    private int batchSize;
+
+    // Full batches are sent back to back up to this many per run, so a backlog drains quickly
+    @Value("${order.events.relay.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    @Value("${order.events.retention-hours:72}")
+    private long retentionHours;
+
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong failedBatchCount = new AtomicLong();
+    private final AtomicLong totalLagMs = new AtomicLong();
+    private final AtomicLong sinkFailureCount = new AtomicLong();
+    // Event ids each sink has taken from batches not marked published yet
+    private final Map<OrderEventSink, Set<Long>> delivered = new ConcurrentHashMap<>();
+    private volatile long lastBatchSize;
+    private volatile long lastBatchMaxLagMs;
+
+    @Scheduled(fixedDelayString = "${order.events.relay.interval-ms:200}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            if (relayBatch() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private int relayBatch() {
+        List<OrderEvent> events;
+        try {
+            events = orderEventRepo.findUnpublished(batchSize);
+        } catch (RuntimeException ex) {
+            failedBatchCount.incrementAndGet();
+            log.warn("Reading the order event outbox failed, it will be retried", ex);
+            return 0;
+        }
+        if (events.isEmpty()) {
+            return 0;
+        }
+        List<OrderEventDTO> dtos = events.stream().map(OrderEventRelay::toDto).toList();
+        boolean everySink = true;
+        for (OrderEventSink sink : sinks.orderedStream().toList()) {
+            everySink &= deliver(sink, dtos);
+        }
+        if (!everySink) {
+            // Left unpublished: the next run sends it again to the sinks that do not have it
+            failedBatchCount.incrementAndGet();
+            return 0;
+        }
+
+        List<Long> ids = events.stream().map(OrderEvent::getId).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> orderEventRepo.markPublished(ids, LocalDateTime.now()));
+        } catch (RuntimeException ex) {
+            failedBatchCount.incrementAndGet();
+            log.warn("Marking {} order events published failed, they will be relayed again", ids.size(), ex);
+            return 0;
+        }
+        delivered.values().forEach(taken -> ids.forEach(taken::remove));
+        recordLag(events);
+        return events.size();
+    }
+
+    // Sends a sink the events of the batch it does not have yet; false if it failed to take them
+    private boolean deliver(OrderEventSink sink, List<OrderEventDTO> events) {
+        Set<Long> taken = delivered.computeIfAbsent(sink, key -> ConcurrentHashMap.newKeySet());
+        List<OrderEventDTO> missing = events.stream().filter(event -> !taken.contains(event.getEventId())).toList();
+        if (missing.isEmpty()) {
+            return true;
+        }
+        try {
+            sink.publish(missing);
+        } catch (Exception ex) {
+            sinkFailureCount.incrementAndGet();
+            log.warn("Order event sink {} failed on {} events, they stay unpublished and will be retried",
+                    sink.getClass().getSimpleName(), missing.size(), ex);
+            return false;
+        }
+        missing.forEach(event -> taken.add(event.getEventId()));
+        return true;
+    }
+
+    private void recordLag(List<OrderEvent> events) {
+        LocalDateTime now = LocalDateTime.now();
+        long maxLag = 0;
+        long lagSum = 0;
+        for (OrderEvent event : events) {
+            long lag = Math.max(0, Duration.between(event.getCreatedAt(), now).toMillis());
+            maxLag = Math.max(maxLag, lag);
+            lagSum += lag;
+        }
+        publishedCount.addAndGet(events.size());
+        batchCount.incrementAndGet();
+        totalLagMs.addAndGet(lagSum);
+        lastBatchSize = events.size();
+        lastBatchMaxLagMs = maxLag;
+    }
+
+    public OrderEventRelayStatsDTO stats() {
+        long pending = orderEventRepo.countByPublishedAtIsNull();
+        LocalDateTime oldest = orderEventRepo.findOldestUnpublishedCreatedAt();
+        long oldestAge = oldest != null ? Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()) : 0;
+        long published = publishedCount.get();
+        return new OrderEventRelayStatsDTO(published, batchCount.get(), failedBatchCount.get(), pending, oldestAge,
+                lastBatchSize, lastBatchMaxLagMs, published > 0 ? (double) totalLagMs.get() / published : 0.0,
+                (int) sinks.orderedStream().count(), sinkFailureCount.get());
+    }
+
+    @Scheduled(fixedDelayString = "${order.events.cleanup-interval-ms:3600000}")
+    public void purgePublished() {
+        Integer deleted = transactionTemplate.execute(status ->
+                orderEventRepo.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours)));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} published order events", deleted);
+        }
+    }
+
+    private static OrderEventDTO toDto(OrderEvent event) {
+        return new OrderEventDTO(event.getId(), event.getType(), event.getOrderId(), event.getOrderNumber(),
+                event.getUserId(), event.getStatus(), event.getPreviousStatus(), event.getTotalAmount(),
+                event.getCreatedAt());
+    }
+}
@@ -0,0 +1,17 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.dto.responsedto.OrderEventDTO;
+
+import java.util.List;
+
+/**
+ * Destination for committed order events. Every bean implementing this receives each batch the
+ * {@link OrderEventRelay} publishes, in event id order. Throwing leaves the batch unpublished and
+ * the relay sends it to this sink again later; sinks that already took it are not resent it while
+ * the relay runs. Delivery is at-least-once: after a restart an event can arrive twice, so drop
+ * repeats by eventId where that matters.
+ */
+public interface OrderEventSink {
+
+    void publish(List<OrderEventDTO> events) throws Exception;
+}
@@ -4,7 +4,6 @@ package com.exampleOf.EcommerceApplication.service;
 import com.exampleOf.EcommerceApplication.dto.requestdto.OrderItemRequestDTO;
 import com.exampleOf.EcommerceApplication.dto.requestdto.OrderItemUpdateRequestDTO;
 import com.exampleOf.EcommerceApplication.dto.responsedto.OrderItemResponseDTO;
-import com.exampleOf.EcommerceApplication.entity.FileData;
 import com.exampleOf.EcommerceApplication.entity.Order;
 import com.exampleOf.EcommerceApplication.entity.OrderItem;
 import com.exampleOf.EcommerceApplication.entity.Product;
@@ -17,8 +16,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,6 +26,8 @@ public class OrderItemService {
     private final OrderRepo orderRepo;
     private final ProductRepo productRepo;
     private final OrderItemRepo orderItemRepo;
+    private final InventoryLedger inventoryLedger;
+    private final PrimaryImageIndex primaryImageIndex;
 
     // ✅ ADD ITEM TO EXISTING ORDER
     @Transactional
@@ -43,7 +44,7 @@ public class OrderItemService {
                 .orElseThrow(() -> new RuntimeException("Product not found"));
 
         // Check stock
-        if (product.getStock() < dto.getQuantity()) {
+        if (inventoryLedger.available(product.getId(), product.getStock()) < dto.getQuantity()) {
             throw new RuntimeException("Insufficient stock for product: " + product.getName());
         }
 
@@ -60,6 +61,8 @@ public class OrderItemService {
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
             orderItem.setProduct(product);
+            orderItem.setProductName(product.getName());
+            orderItem.setProductImage(primaryImageIndex.primaryImage(product.getId()));
             orderItem.setQuantity(dto.getQuantity());
             orderItem.setPrice(product.getPrice()); // Use current price for new additions
             orderItem.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(dto.getQuantity())));
@@ -94,7 +97,7 @@ public class OrderItemService {
         int quantityDifference = dto.getQuantity() - orderItem.getQuantity();
 
         // Check stock for increase
-        if (quantityDifference > 0 && product.getStock() < quantityDifference) {
+        if (quantityDifference > 0 && inventoryLedger.available(product.getId(), product.getStock()) < quantityDifference) {
             throw new RuntimeException("Insufficient stock for quantity increase");
         }
 
@@ -161,10 +164,13 @@ public class OrderItemService {
         order.setTotalAmount(total);
     }
 
-    // ✅ UPDATE PRODUCT STOCK
+    // ✅ UPDATE PRODUCT STOCK (through the inventory ledger, applied with the transaction)
     private void updateProductStock(Product product, int quantityChange) {
-        product.setStock(product.getStock() + quantityChange);
-        productRepo.save(product);
+        if (quantityChange < 0) {
+            inventoryLedger.reserveForTransaction(Map.of(product.getId(), -quantityChange));
+        } else if (quantityChange > 0) {
+            inventoryLedger.restockAfterCommit(Map.of(product.getId(), quantityChange));
+        }
     }
 
     // ✅ CONVERT TO DTO
@@ -172,36 +178,15 @@ public class OrderItemService {
         OrderItemResponseDTO dto = new OrderItemResponseDTO();
         dto.setId(item.getId());
         dto.setProductId(item.getProduct().getId());
-        dto.setProductName(item.getProduct().getName());
+        // Name and image come from the snapshot taken when the line was added
+        dto.setProductName(item.getProductName());
+        dto.setProductImage(item.getProductImage());
         dto.setQuantity(item.getQuantity());
         dto.setPrice(item.getPrice());
         dto.setTotalPrice(item.getTotalPrice());
-
-        // UPDATED: Get product image from FileData
-        dto.setProductImage(getProductImageUrl(item.getProduct()));
-
         return dto;
     }
 
-    // ✅ HELPER METHOD TO EXTRACT PRODUCT IMAGE URL
-    private String getProductImageUrl(Product product) {
-        if (product.getImages() == null || product.getImages().isEmpty()) {
-            return null;
-        }
-
-        // Priority: Primary image > Sorted image > First image
-        return product.getImages().stream()
-                .filter(image -> Boolean.TRUE.equals(image.getIsPrimary()))
-                .findFirst()
-                .map(FileData::getFilePath)
-                .orElseGet(() ->
-                        product.getImages().stream()
-                                .min(Comparator.comparing(FileData::getSortOrder))
-                                .map(FileData::getFilePath)
-                                .orElse(product.getImages().get(0).getFilePath())
-                );
-    }
-
     // ✅ GET ORDER ITEM RESPONSE
     private OrderItemResponseDTO getOrderItemResponse(Long orderId, Long productId) {
         Order order = orderRepo.findById(orderId)
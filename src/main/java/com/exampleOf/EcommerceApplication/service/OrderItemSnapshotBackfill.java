@@ -0,0 +1,45 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.repository.OrderItemRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Gives order lines created before product snapshots existed their product name and image,
+ * in short batches so no statement holds many row locks. Once every line has a name this is a
+ * single query that updates nothing.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderItemSnapshotBackfill {
+
+    private final OrderItemRepo orderItemRepo;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${order.snapshot.backfill-batch-size:1000}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            long total = 0;
+            int updated;
+            do {
+                Integer rows = transactionTemplate.execute(status -> orderItemRepo.backfillProductSnapshots(batchSize));
+                updated = rows != null ? rows : 0;
+                total += updated;
+            } while (updated == batchSize);
+            if (total > 0) {
+                log.info("Backfilled product snapshots on {} order items", total);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Order item snapshot backfill failed, will retry on next start", ex);
+        }
+    }
+}
@@ -1,26 +1,36 @@
 package com.exampleOf.EcommerceApplication.service;
 
+import com.exampleOf.EcommerceApplication.Exception.CustomException.BadRequestException;
 import com.exampleOf.EcommerceApplication.dto.requestdto.OrderRequestDTO;
+import com.exampleOf.EcommerceApplication.dto.responsedto.CursorPageDTO;
 import com.exampleOf.EcommerceApplication.dto.responsedto.OrderItemResponseDTO;
 import com.exampleOf.EcommerceApplication.dto.responsedto.OrderResponseDTO;
+import com.exampleOf.EcommerceApplication.dto.responsedto.OrderSummaryDTO;
 import com.exampleOf.EcommerceApplication.entity.*;
+import com.exampleOf.EcommerceApplication.enums.OrderEventType;
 import com.exampleOf.EcommerceApplication.enums.OrderStatus;
 import com.exampleOf.EcommerceApplication.enums.ProductStatus;
 import com.exampleOf.EcommerceApplication.repository.*;
+import com.exampleOf.EcommerceApplication.util.CursorCodec;
+import com.exampleOf.EcommerceApplication.util.FlowTrace;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final OrderRepo orderRepo;
     private final UserRepository userRepo;
     private final ProductRepo productRepo;
@@ -28,6 +38,12 @@ public class OrderService {
     private final AddressRepo addressRepo;
     private final CartService cartService;
     private final CartItemRepo cartItemRepo;
+    private final TrendingLeaderboard trendingLeaderboard;
+    private final InventoryLedger inventoryLedger;
+    private final OrderDtoAssembler orderDtoAssembler;
+    private final PrimaryImageIndex primaryImageIndex;
+    private final OrderEventOutbox orderEventOutbox;
+    private final HotCartCache hotCartCache;
 
     // ✅ CREATE ORDER FROM REQUEST DTO (Controller calls this as save())
     @Transactional
@@ -44,6 +60,19 @@ public class OrderService {
     // ✅ CREATE ORDER FROM CART (Implementation)
     @Transactional
     public OrderResponseDTO checkoutFromCart(Long userId, Long addressId) {
+        PlacedOrder placed = placeOrderFromCart(userId, addressId);
+
+        // 10. Clear cart after successful order
+        clearCarts(List.of(placed.cartId()));
+
+        return placed.order();
+    }
+
+    // ✅ CHECKOUT STEPS 1-9 (joins the caller's transaction, leaves the cart items for clearCarts)
+    // Every check that can reject the checkout runs before the first write, so CheckoutPipeline can
+    // catch a rejection and carry on with the rest of its group in the same transaction. A failure
+    // once stock is reserved is thrown as WritesFailedException: the enclosing transaction must roll back.
+    public PlacedOrder placeOrderFromCart(Long userId, Long addressId) {
         // 1. Get user and validate
         User user = userRepo.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
@@ -52,11 +81,10 @@ public class OrderService {
         Address address = addressRepo.findById(addressId)
                 .orElseThrow(() -> new RuntimeException("Shipping address not found with id: " + addressId));
 
-        // 3. Get user's cart with items
-        Cart cart = cartService.getOrCreateCart(userId);
-        if (cart.getItems().isEmpty()) {
-            throw new RuntimeException("Cart is empty. Add products before checkout.");
-        }
+        // 3. Get user's cart with items (locked, so the cart sweeper leaves it alone)
+        Cart cart = cartService.lockCart(userId)
+                .filter(locked -> !locked.getItems().isEmpty())
+                .orElseThrow(() -> new RuntimeException("Cart is empty. Add products before checkout."));
 
         // 4. Validate stock and prices
         validateCartItems(cart);
@@ -74,22 +102,46 @@ public class OrderService {
             OrderItem orderItem = convertToOrderItem(cartItem, order);
             order.addOrderItem(orderItem);
             totalAmount = totalAmount.add(orderItem.getTotalPrice());
-
-            // 7. Update product stock
-            updateProductStock(cartItem.getProduct(), cartItem.getQuantity());
         }
 
         order.setTotalAmount(totalAmount);
 
-        // 8. Save order (cascades to order items)
-        Order savedOrder = orderRepo.save(order);
+        // 7. Reserve stock for every line, all or nothing
+        reserveStock(order.getOrderItems());
 
-        // 9. Clear cart after successful order
-        cart.getItems().clear();
-        cart.setTotalPrice(BigDecimal.ZERO);
-        cartItemRepo.deleteAllByCartId(cart.getId());
+        try {
+            // 8. Save order (cascades to order items)
+            Order savedOrder = orderRepo.save(order);
 
-        return toDto(savedOrder);
+            // 9. Count the sales toward trending/best-sellers once the order is committed
+            recordSalesAfterCommit(savedOrder);
+            orderEventOutbox.record(savedOrder, OrderEventType.PLACED, null);
+
+            cart.setTotalPrice(BigDecimal.ZERO);
+            FlowTrace.event("checkout user {} placed order {} with {} lines",
+                    userId, savedOrder.getId(), savedOrder.getOrderItems().size());
+            return new PlacedOrder(toDto(savedOrder), cart.getId());
+        } catch (RuntimeException ex) {
+            throw new WritesFailedException(ex);
+        }
+    }
+
+    // ✅ CLEAR CARTS (one DELETE for every cart checked out together)
+    public void clearCarts(Collection<Long> cartIds) {
+        if (!cartIds.isEmpty()) {
+            cartItemRepo.deleteAllByCartIdIn(cartIds);
+            hotCartCache.evict(cartIds);
+        }
+    }
+
+    public record PlacedOrder(OrderResponseDTO order, Long cartId) {
+    }
+
+    // The checkout failed after reserving stock and writing; only rolling the transaction back undoes it
+    public static class WritesFailedException extends RuntimeException {
+        public WritesFailedException(RuntimeException cause) {
+            super(cause.getMessage(), cause);
+        }
     }
 
     // ✅ CONVERT CART ITEM TO ORDER ITEM (CRITICAL - LOCKS PRICE)
@@ -97,6 +149,7 @@ public class OrderService {
         OrderItem orderItem = new OrderItem();
         orderItem.setOrder(order);
         orderItem.setProduct(cartItem.getProduct());
+        snapshotProduct(orderItem, cartItem.getProduct());
         orderItem.setQuantity(cartItem.getQuantity());
 
         // ✅ CRITICAL: Use price from CartItem, NOT current product price
@@ -112,10 +165,11 @@ public class OrderService {
             Product product = cartItem.getProduct();
 
             // Check stock availability
-            if (product.getStock() < cartItem.getQuantity()) {
+            int available = inventoryLedger.available(product.getId(), product.getStock());
+            if (available < cartItem.getQuantity()) {
                 throw new RuntimeException(
                         "Insufficient stock for product: " + product.getName() +
-                                ". Available: " + product.getStock() + ", Requested: " + cartItem.getQuantity()
+                                ". Available: " + available + ", Requested: " + cartItem.getQuantity()
                 );
             }
 
@@ -126,10 +180,26 @@ public class OrderService {
         }
     }
 
-    // ✅ UPDATE PRODUCT STOCK
-    private void updateProductStock(Product product, Integer quantitySold) {
-        product.setStock(product.getStock() - quantitySold);
-        productRepo.save(product);
+    // ✅ RESERVE STOCK (all or nothing, confirmed when the order commits)
+    private void reserveStock(List<OrderItem> items) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (OrderItem item : items) {
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        inventoryLedger.reserveForTransaction(quantities);
+    }
+
+    // ✅ FEED SALES VELOCITY COUNTERS (skipped if the transaction rolls back)
+    private void recordSalesAfterCommit(Order order) {
+        List<OrderItem> items = List.copyOf(order.getOrderItems());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (OrderItem item : items) {
+                    trendingLeaderboard.recordSale(item.getProduct().getId(), item.getQuantity());
+                }
+            }
+        });
     }
 
     // ✅ CREATE ORDER MANUALLY (Admin/Backend use)
@@ -155,13 +225,14 @@ public class OrderService {
                     .orElseThrow(() -> new RuntimeException("Product not found"));
 
             // Validate stock for manual orders too
-            if (product.getStock() < itemDTO.getQuantity()) {
+            if (inventoryLedger.available(product.getId(), product.getStock()) < itemDTO.getQuantity()) {
                 throw new RuntimeException("Insufficient stock for: " + product.getName());
             }
 
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
             orderItem.setProduct(product);
+            snapshotProduct(orderItem, product);
             orderItem.setQuantity(itemDTO.getQuantity());
             orderItem.setPrice(product.getPrice()); // Use current price for manual orders
             orderItem.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(itemDTO.getQuantity())));
@@ -169,12 +240,14 @@ public class OrderService {
             order.addOrderItem(orderItem);
             totalAmount = totalAmount.add(orderItem.getTotalPrice());
 
-            // Update stock
-            updateProductStock(product, itemDTO.getQuantity());
         }
 
+        // Reserve stock for every line, all or nothing
+        reserveStock(order.getOrderItems());
+
         order.setTotalAmount(totalAmount);
         Order savedOrder = orderRepo.save(order);
+        orderEventOutbox.record(savedOrder, OrderEventType.PLACED, null);
 
         return toDto(savedOrder);
     }
@@ -193,13 +266,40 @@ public class OrderService {
                 .collect(Collectors.toList());
     }
 
-    // ✅ GET ORDERS BY USER
+    // ✅ GET ORDERS BY USER (full orders, newest first)
+    @Transactional(readOnly = true)
     public List<OrderResponseDTO> getOrdersByUser(Long userId) {
-        List<Order> orders = orderRepo.findAll().stream()
-                .filter(order -> order.getUser().getId().equals(userId))
-                .collect(Collectors.toList());
+        return orderDtoAssembler.toDtos(orderRepo.findByUserIdOrderByCreatedAtDescIdDesc(userId));
+    }
 
-        return orders.stream().map(this::toDto).collect(Collectors.toList());
+    // ✅ ORDER HISTORY (summaries, newest first; pass nextCursor back for the following slice)
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderSummaryDTO> getOrderHistory(Long userId, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        // One extra row tells whether another slice follows
+        PageRequest page = PageRequest.of(0, limit + 1);
+
+        List<Object[]> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = orderRepo.findSummariesByUserId(userId, page);
+        } else {
+            Map<String, Object> after = CursorCodec.decode(cursor);
+            if (!(after.get("createdAt") instanceof LocalDateTime createdAt) || !(after.get("id") instanceof Long id)) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            rows = orderRepo.findSummariesByUserIdBefore(userId, createdAt, id, page);
+        }
+
+        boolean hasNext = rows.size() > limit;
+        if (hasNext) {
+            rows = rows.subList(0, limit);
+        }
+        String nextCursor = null;
+        if (hasNext) {
+            Object[] last = rows.get(rows.size() - 1);
+            nextCursor = CursorCodec.encode(Map.of("createdAt", last[4], "id", last[0]));
+        }
+        return new CursorPageDTO<>(orderDtoAssembler.toSummaries(rows), rows.size(), hasNext, nextCursor);
     }
 
     // ✅ UPDATE ORDER STATUS (Controller calls this as updateStatus())
@@ -209,8 +309,13 @@ public class OrderService {
                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
         // Add status transition validation if needed
+        OrderStatus previousStatus = order.getStatus();
         order.setStatus(newStatus);
         Order updated = orderRepo.save(order);
+        if (previousStatus != newStatus) {
+            orderEventOutbox.record(updated, newStatus == OrderStatus.CANCELLED
+                    ? OrderEventType.CANCELLED : OrderEventType.STATUS_CHANGED, previousStatus);
+        }
 
         return toDto(updated);
     }
@@ -227,14 +332,15 @@ public class OrderService {
         }
 
         // Restore product stock
+        Map<Long, Integer> quantities = new HashMap<>();
         for (OrderItem item : order.getOrderItems()) {
-            Product product = item.getProduct();
-            product.setStock(product.getStock() + item.getQuantity());
-            productRepo.save(product);
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
         }
+        inventoryLedger.restockAfterCommit(quantities);
 
         order.setStatus(OrderStatus.CANCELLED);
         Order updated = orderRepo.save(order);
+        orderEventOutbox.record(updated, OrderEventType.CANCELLED, OrderStatus.PENDING);
 
         return toDto(updated);
     }
@@ -244,6 +350,7 @@ public class OrderService {
     public void delete(Long id) {
         Order order = orderRepo.findById(id)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
+        orderEventOutbox.record(order, OrderEventType.DELETED, order.getStatus());
         orderRepo.delete(order);
     }
 
@@ -272,39 +379,17 @@ public class OrderService {
         OrderItemResponseDTO dto = new OrderItemResponseDTO();
         dto.setId(item.getId());
         dto.setProductId(item.getProduct().getId());
-        dto.setProductName(item.getProduct().getName());
+        dto.setProductName(item.getProductName());
+        dto.setProductImage(item.getProductImage());
         dto.setQuantity(item.getQuantity());
         dto.setPrice(item.getPrice());
         dto.setTotalPrice(item.getTotalPrice());
-
-        // Add product image using helper method
-        dto.setProductImage(getProductImageUrl(item.getProduct()));
-
         return dto;
     }
 
-    // ✅ HELPER METHOD TO GET PRODUCT IMAGE URL
-    private String getProductImageUrl(Product product) {
-        if (product.getImages() == null || product.getImages().isEmpty()) {
-            return null;
-        }
-
-        // Try to get primary image first
-        Optional<FileData> primaryImage = product.getImages().stream()
-                .filter(image -> Boolean.TRUE.equals(image.getIsPrimary()))
-                .findFirst();
-
-        if (primaryImage.isPresent()) {
-            return primaryImage.get().getFilePath();
-        }
-
-        // If no primary, get first image by sort order
-        return product.getImages().stream()
-                .min(Comparator.comparing(FileData::getSortOrder))
-                .map(FileData::getFilePath)
-                .orElseGet(() -> {
-                    // Fallback: get any image
-                    return product.getImages().get(0).getFilePath();
-                });
+    // ✅ SNAPSHOT PRODUCT NAME AND IMAGE ONTO THE LINE
+    private void snapshotProduct(OrderItem item, Product product) {
+        item.setProductName(product.getName());
+        item.setProductImage(primaryImageIndex.primaryImage(product.getId()));
     }
 }
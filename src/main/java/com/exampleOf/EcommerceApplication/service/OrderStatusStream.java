@@ -0,0 +1,135 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.Exception.CustomException.ResourceNotFoundException;
+import com.exampleOf.EcommerceApplication.dto.responsedto.OrderEventDTO;
+import com.exampleOf.EcommerceApplication.dto.responsedto.OrderStatusEventDTO;
+import com.exampleOf.EcommerceApplication.enums.OrderEventType;
+import com.exampleOf.EcommerceApplication.enums.OrderStatus;
+import com.exampleOf.EcommerceApplication.repository.OrderRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live order status over server-sent events. Watchers are kept per order in memory; an SseEmitter
+ * holds no request thread while it waits, so an idle watcher costs a socket and a few objects.
+ * Subscribing reads the order's status once; after that, transitions arrive from the order event
+ * relay (this is an {@link OrderEventSink}) and never touch the database.
+ * With several instances, a watcher only sees the events relayed by the instance it is connected to.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderStatusStream implements OrderEventSink {
+
+    private static final String EVENT_NAME = "status";
+
+    private final OrderRepo orderRepo;
+
+    // Clients (EventSource) reconnect on their own once this runs out
+    @Value("${order.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    private final Map<Long, Watchers> watchers = new ConcurrentHashMap<>();
+    private final AtomicInteger watcherCount = new AtomicInteger();
+
+    public SseEmitter subscribe(Long orderId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Watchers orderWatchers = watchers.compute(orderId, (id, existing) -> {
+            Watchers current = existing != null ? existing : new Watchers();
+            current.emitters.add(emitter);
+            return current;
+        });
+        watcherCount.incrementAndGet();
+        emitter.onCompletion(() -> remove(orderId, emitter));
+        emitter.onTimeout(() -> remove(orderId, emitter));
+        emitter.onError(ex -> remove(orderId, emitter));
+
+        // Read under the order's lock so a transition relayed meanwhile cannot arrive before it
+        synchronized (orderWatchers) {
+            OrderStatus status = orderRepo.findStatusById(orderId).orElse(null);
+            if (status == null) {
+                remove(orderId, emitter);
+                throw new ResourceNotFoundException("Order", "id", orderId);
+            }
+            send(orderId, emitter, new OrderStatusEventDTO(orderId, status, null, LocalDateTime.now()));
+        }
+        return emitter;
+    }
+
+    public int watcherCount() {
+        return watcherCount.get();
+    }
+
+    // ==================== HOOKS ====================
+
+    @Override
+    public void publish(List<OrderEventDTO> events) {
+        for (OrderEventDTO event : events) {
+            Watchers orderWatchers = watchers.get(event.getOrderId());
+            if (orderWatchers == null || event.getType() == OrderEventType.PLACED) {
+                continue;
+            }
+            synchronized (orderWatchers) {
+                OrderStatusEventDTO update = new OrderStatusEventDTO(event.getOrderId(), event.getStatus(),
+                        event.getPreviousStatus(), event.getOccurredAt());
+                for (SseEmitter emitter : orderWatchers.emitters) {
+                    if (event.getType() == OrderEventType.DELETED) {
+                        emitter.complete();
+                    } else {
+                        send(event.getOrderId(), emitter, update);
+                    }
+                }
+            }
+        }
+    }
+
+    // Comments keep proxies from closing idle streams and reveal clients that went away
+    @Scheduled(fixedDelayString = "${order.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        watchers.forEach((orderId, orderWatchers) -> {
+            for (SseEmitter emitter : orderWatchers.emitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                } catch (IOException | IllegalStateException ex) {
+                    remove(orderId, emitter);
+                }
+            }
+        });
+    }
+
+    // ==================== HELPERS ====================
+
+    private void send(Long orderId, SseEmitter emitter, OrderStatusEventDTO update) {
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_NAME).data(update));
+        } catch (IOException | IllegalStateException ex) {
+            // Client disconnected; the servlet container reports it and onError/onCompletion follow
+            remove(orderId, emitter);
+        }
+    }
+
+    private void remove(Long orderId, SseEmitter emitter) {
+        watchers.computeIfPresent(orderId, (id, orderWatchers) -> {
+            if (orderWatchers.emitters.remove(emitter)) {
+                watcherCount.decrementAndGet();
+            }
+            return orderWatchers.emitters.isEmpty() ? null : orderWatchers;
+        });
+    }
+
+    private static final class Watchers {
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    }
+}
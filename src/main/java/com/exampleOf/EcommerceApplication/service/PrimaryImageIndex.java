@@ -0,0 +1,133 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.repository.FileDataRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thumbnail path per product: the primary image, otherwise the active image with the lowest sort
+ * order. Cart, order and product mappers look it up here instead of loading product.images.
+ * Built once on startup; FileDataService refreshes a product after every image change commits.
+ * Until the build has finished, ids not yet in the map are loaded with one IN query per call.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PrimaryImageIndex implements ProductChangeListener {
+
+    // Stored for products known to have no image, so they are not looked up again
+    private static final String NONE = "";
+
+    private final FileDataRepo fileDataRepo;
+
+    @Value("${product.image.index.batch-size:5000}")
+    private int batchSize;
+
+    private final Map<Long, String> paths = new ConcurrentHashMap<>();
+    private volatile boolean complete;
+
+    // ==================== BUILD ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        long start = System.currentTimeMillis();
+        long lastId = 0L;
+        List<Long> productIds;
+        do {
+            productIds = fileDataRepo.findProductIdsWithImagesAfter(lastId, PageRequest.of(0, batchSize));
+            if (productIds.isEmpty()) {
+                break;
+            }
+            // A refresh that ran while this page was read has the newer value, keep it
+            load(productIds).forEach(paths::putIfAbsent);
+            lastId = productIds.get(productIds.size() - 1);
+        } while (productIds.size() == batchSize);
+        complete = true;
+        log.info("Primary image index built: {} products in {} ms", paths.size(), System.currentTimeMillis() - start);
+    }
+
+    // ==================== LOOKUP ====================
+
+    // Thumbnail path of a product, or null if it has none
+    public String primaryImage(Long productId) {
+        if (productId == null) {
+            return null;
+        }
+        String path = paths.get(productId);
+        if (path == null && !complete) {
+            path = load(List.of(productId)).get(productId);
+            paths.putIfAbsent(productId, path);
+        }
+        return path == null || path.isEmpty() ? null : path;
+    }
+
+    // Thumbnails of a set of products; products without one are left out
+    public Map<Long, String> primaryImages(Collection<Long> productIds) {
+        Map<Long, String> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long productId : new HashSet<>(productIds)) {
+            String path = paths.get(productId);
+            if (path == null) {
+                missing.add(productId);
+            } else if (!path.isEmpty()) {
+                result.put(productId, path);
+            }
+        }
+        if (!missing.isEmpty() && !complete) {
+            load(missing).forEach((productId, path) -> {
+                paths.putIfAbsent(productId, path);
+                if (!path.isEmpty()) {
+                    result.put(productId, path);
+                }
+            });
+        }
+        return result;
+    }
+
+    // ==================== HOOKS ====================
+
+    // Re-reads the product's thumbnail once the image change is committed
+    public void refreshAfterCommit(Long productId) {
+        Runnable refresh = () -> paths.put(productId, load(List.of(productId)).get(productId));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh.run();
+                }
+            });
+        } else {
+            refresh.run();
+        }
+    }
+
+    @Override
+    public void onProductDeleted(Long productId) {
+        paths.remove(productId);
+    }
+
+    // ==================== HELPERS ====================
+
+    // Every requested id gets an entry, NONE when the product has no active image
+    private Map<Long, String> load(Collection<Long> productIds) {
+        Map<Long, String> loaded = new HashMap<>();
+        for (Object[] row : fileDataRepo.findImagePathsByProductIdIn(productIds)) {
+            // Rows come best candidate first, so the first path per product wins
+            loaded.putIfAbsent((Long) row[0], (String) row[1]);
+        }
+        for (Long productId : productIds) {
+            loaded.putIfAbsent(productId, NONE);
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,206 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.entity.ProductActivity;
+import com.exampleOf.EcommerceApplication.repository.ProductActivityRepo;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-product view and sales velocity as exponentially decayed counters.
+ * Each counter stores its value as of a timestamp and is decayed lazily on read or write,
+ * so an event is O(1) and no order or view history is ever scanned. Counters that changed
+ * are written to product_activity periodically; counters that decayed to nothing are dropped.
+ * Events and pruning both go through the map's per-key compute, so an event can never land on a
+ * counter that is being dropped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductActivityTracker {
+
+    private static final double PRUNE_BELOW = 0.01;
+
+    private final ProductActivityRepo activityRepo;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${product.activity.view-half-life-hours:24}")
+    private double viewHalfLifeHours;
+
+    @Value("${product.activity.sales-half-life-hours:72}")
+    private double salesHalfLifeHours;
+
+    private final Map<Long, Counters> counters = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    // ==================== LOAD / PERSIST ====================
+
+    // Runs before the leaderboards build so their first scores already include activity
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            for (ProductActivity row : activityRepo.findAll()) {
+                counters.put(row.getProductId(), new Counters(row.getViewScore(), row.getSalesScore(), row.getDecayedAt()));
+            }
+            log.info("Product activity counters loaded: {} products", counters.size());
+        } catch (RuntimeException ex) {
+            log.error("Product activity counters could not be loaded, starting from zero", ex);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${product.activity.flush-interval-ms:60000}",
+            fixedDelayString = "${product.activity.flush-interval-ms:60000}")
+    public synchronized void flush() {
+        long now = System.currentTimeMillis();
+        List<Long> pruned = new ArrayList<>();
+        for (Long id : counters.keySet()) {
+            counters.computeIfPresent(id, (key, c) -> {
+                if (!c.isNegligible(now, viewHalfLifeMs(), salesHalfLifeMs())) {
+                    return c;
+                }
+                pruned.add(key);
+                dirty.remove(key);
+                return null;
+            });
+        }
+
+        List<ProductActivity> changed = new ArrayList<>();
+        for (Long id : dirty) {
+            dirty.remove(id);
+            Counters c = counters.get(id);
+            if (c != null) {
+                changed.add(c.snapshot(id, now, viewHalfLifeMs(), salesHalfLifeMs()));
+            }
+        }
+        if (changed.isEmpty() && pruned.isEmpty()) {
+            return;
+        }
+
+        try {
+            // Deletes first: a product pruned and then viewed again before this point is upserted afresh
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!pruned.isEmpty()) {
+                    activityRepo.deleteAllByIdInBatch(pruned);
+                }
+                for (ProductActivity row : changed) {
+                    activityRepo.upsert(row.getProductId(), row.getViewScore(), row.getSalesScore(), row.getDecayedAt());
+                }
+            });
+        } catch (RuntimeException ex) {
+            changed.forEach(row -> dirty.add(row.getProductId()));
+            log.warn("Product activity flush failed for {} products, retrying next cycle", changed.size(), ex);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // ==================== EVENTS ====================
+
+    public void recordView(Long productId) {
+        record(productId, 1, 0);
+    }
+
+    public void recordSale(Long productId, int quantity) {
+        record(productId, 0, quantity);
+    }
+
+    // Inside compute, so the increment is ordered with flush's prune of the same key
+    private void record(Long productId, double viewDelta, double salesDelta) {
+        long now = System.currentTimeMillis();
+        counters.compute(productId, (id, c) -> {
+            Counters counter = c != null ? c : new Counters(0, 0, now);
+            counter.add(viewDelta, salesDelta, now, viewHalfLifeMs(), salesHalfLifeMs());
+            dirty.add(id);
+            return counter;
+        });
+    }
+
+    // ==================== QUERY ====================
+
+    public double viewScore(Long productId, long now) {
+        Counters c = counters.get(productId);
+        return c != null ? c.views(now, viewHalfLifeMs()) : 0;
+    }
+
+    public double salesScore(Long productId, long now) {
+        Counters c = counters.get(productId);
+        return c != null ? c.sales(now, salesHalfLifeMs()) : 0;
+    }
+
+    private long viewHalfLifeMs() {
+        return (long) (viewHalfLifeHours * TimeUnit.HOURS.toMillis(1));
+    }
+
+    private long salesHalfLifeMs() {
+        return (long) (salesHalfLifeHours * TimeUnit.HOURS.toMillis(1));
+    }
+
+    // ==================== TYPES ====================
+
+    /** Two decayed counters sharing one reference time. */
+    private static final class Counters {
+        private double views;
+        private double sales;
+        private long at;
+
+        Counters(double views, double sales, long at) {
+            this.views = views;
+            this.sales = sales;
+            this.at = at;
+        }
+
+        synchronized void add(double viewDelta, double salesDelta, long now, long viewHalfLife, long salesHalfLife) {
+            decayTo(now, viewHalfLife, salesHalfLife);
+            views += viewDelta;
+            sales += salesDelta;
+        }
+
+        synchronized double views(long now, long halfLife) {
+            return views * decay(now - at, halfLife);
+        }
+
+        synchronized double sales(long now, long halfLife) {
+            return sales * decay(now - at, halfLife);
+        }
+
+        synchronized boolean isNegligible(long now, long viewHalfLife, long salesHalfLife) {
+            return views(now, viewHalfLife) < PRUNE_BELOW && sales(now, salesHalfLife) < PRUNE_BELOW;
+        }
+
+        synchronized ProductActivity snapshot(Long productId, long now, long viewHalfLife, long salesHalfLife) {
+            decayTo(now, viewHalfLife, salesHalfLife);
+            return new ProductActivity(productId, views, sales, at);
+        }
+
+        private void decayTo(long now, long viewHalfLife, long salesHalfLife) {
+            if (now > at) {
+                views *= decay(now - at, viewHalfLife);
+                sales *= decay(now - at, salesHalfLife);
+                at = now;
+            }
+        }
+
+        private static double decay(long elapsedMs, long halfLifeMs) {
+            return elapsedMs <= 0 ? 1 : Math.pow(0.5, (double) elapsedMs / halfLifeMs);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.entity.Product;
+
+/**
+ * Callback for in-memory structures that mirror the products table.
+ * ProductService notifies every registered listener once a write or removal of a product row commits.
+ * InventoryLedger reports stock-only changes separately, so those never trigger a full re-index.
+ */
+public interface ProductChangeListener {
+
+    default void onProductSaved(Product product) {
+    }
+
+    default void onProductDeleted(Long productId) {
+    }
+
+    // Available stock moved (checkouts, cancellations) without any other change to the product
+    default void onStockChanged(Long productId, int available) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.entity.Product;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fans product writes out to every {@link ProductChangeListener}.
+ * Inside a transaction listeners are only called once it commits, so an index or cache never sees
+ * a write that is later rolled back, nor makes it visible to readers before the database does.
+ * A failing listener is logged and skipped so it can never fail the write itself.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductChangePublisher {
+
+    private final List<ProductChangeListener> listeners;
+
+    public void productSaved(Product product) {
+        afterCommit(() -> notifySaved(product));
+    }
+
+    // Stock-only changes from the inventory ledger; only listeners that filter on stock care
+    public void stockChanged(Map<Long, Integer> availableById) {
+        afterCommit(() -> notifyStockChanged(availableById));
+    }
+
+    public void productDeleted(Long productId) {
+        afterCommit(() -> notifyDeleted(productId));
+    }
+
+    private void afterCommit(Runnable notification) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    notification.run();
+                }
+            });
+        } else {
+            notification.run();
+        }
+    }
+
+    private void notifySaved(Product product) {
+        for (ProductChangeListener listener : listeners) {
+            try {
+                listener.onProductSaved(product);
+            } catch (RuntimeException ex) {
+                log.warn("Product change listener {} failed for product {}", listener.getClass().getSimpleName(), product.getId(), ex);
+            }
+        }
+    }
+
+    private void notifyStockChanged(Map<Long, Integer> availableById) {
+        for (ProductChangeListener listener : listeners) {
+            availableById.forEach((productId, available) -> {
+                try {
+                    listener.onStockChanged(productId, available);
+                } catch (RuntimeException ex) {
+                    log.warn("Product change listener {} failed for stock of product {}", listener.getClass().getSimpleName(), productId, ex);
+                }
+            });
+        }
+    }
+
+    private void notifyDeleted(Long productId) {
+        for (ProductChangeListener listener : listeners) {
+            try {
+                listener.onProductDeleted(productId);
+            } catch (RuntimeException ex) {
+                log.warn("Product change listener {} failed for deleted product {}", listener.getClass().getSimpleName(), productId, ex);
+            }
+        }
+    }
+}
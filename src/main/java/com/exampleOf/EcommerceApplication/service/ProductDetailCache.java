@@ -0,0 +1,140 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.dto.requestdto.FileDataDTO;
+import com.exampleOf.EcommerceApplication.dto.requestdto.ProductSpecificationDTO;
+import com.exampleOf.EcommerceApplication.dto.responsedto.CacheStatsDTO;
+import com.exampleOf.EcommerceApplication.dto.responsedto.ProductResponseDTO;
+import com.exampleOf.EcommerceApplication.entity.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of fully built product detail DTOs, bounded by an estimate of their size in
+ * bytes and evicted with Caffeine's W-TinyLFU policy.
+ * Entries are dropped whenever the product, its images or its stock change; inside a transaction
+ * the entry is dropped again after commit so a concurrent reload cannot cache the old row.
+ * The cached view count is the flushed value and gets the buffered views added on every read.
+ * When ProductViewCounter writes views, only entries loaded before that write get its delta;
+ * entries loaded while it ran are dropped, since they may or may not already include it.
+ */
+@Component
+public class ProductDetailCache implements ProductChangeListener {
+
+    private final Cache<Long, Entry> cache;
+    private final long maximumWeight;
+
+    // Bumped when a view flush starts and again when it ends; each entry records it before and after loading
+    private final AtomicLong viewFlushClock = new AtomicLong();
+
+    public ProductDetailCache(@Value("${product.cache.max-weight-bytes:67108864}") long maximumWeight) {
+        this.maximumWeight = maximumWeight;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((Long id, Entry entry) -> estimateBytes(entry.dto()))
+                .recordStats()
+                .build();
+    }
+
+    public ProductResponseDTO get(Long productId, Function<Long, ProductResponseDTO> loader) {
+        Entry entry = cache.get(productId, id -> {
+            long before = viewFlushClock.get();
+            ProductResponseDTO dto = loader.apply(id);
+            return dto != null ? new Entry(dto, before, viewFlushClock.get()) : null;
+        });
+        return entry != null ? entry.dto() : null;
+    }
+
+    public void invalidate(Long productId) {
+        cache.invalidate(productId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(productId);
+                }
+            });
+        }
+    }
+
+    // ProductViewCounter calls this before writing view deltas, and viewsFlushed with the result after
+    public long viewFlushStarted() {
+        return viewFlushClock.incrementAndGet();
+    }
+
+    // Views written by ProductViewCounter (empty if the write failed) move from "pending" into the
+    // cached stored count of entries loaded before the write; entries loaded after it committed already
+    // have them, and entries whose load overlapped the write are dropped
+    public void viewsFlushed(long started, Map<Long, Long> flushed) {
+        long ended = viewFlushClock.incrementAndGet();
+        flushed.forEach((id, delta) -> cache.asMap().computeIfPresent(id, (key, entry) -> {
+            if (entry.loadStartClock() >= ended) {
+                return entry;
+            }
+            if (entry.loadEndClock() >= started) {
+                return null;
+            }
+            ProductResponseDTO dto = entry.dto();
+            long views = (dto.getViewCount() != null ? dto.getViewCount() : 0) + delta;
+            return new Entry(dto.toBuilder().viewCount((int) Math.min(views, Integer.MAX_VALUE)).build(),
+                    entry.loadStartClock(), entry.loadEndClock());
+        }));
+    }
+
+    public CacheStatsDTO stats() {
+        CacheStats stats = cache.stats();
+        long weightedSize = cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+        return new CacheStatsDTO(stats.hitCount(), stats.missCount(), stats.hitRate(),
+                stats.evictionCount(), stats.evictionWeight(), cache.estimatedSize(), weightedSize, maximumWeight);
+    }
+
+    // ==================== HOOKS ====================
+
+    @Override
+    public void onProductSaved(Product product) {
+        invalidate(product.getId());
+    }
+
+    @Override
+    public void onProductDeleted(Long productId) {
+        invalidate(productId);
+    }
+
+    // ==================== HELPERS ====================
+
+    // viewFlushClock read when the entry's load started and when it finished
+    private record Entry(ProductResponseDTO dto, long loadStartClock, long loadEndClock) {
+    }
+
+    // Rough heap footprint: object headers plus two bytes per character of every string
+    private static int estimateBytes(ProductResponseDTO dto) {
+        long bytes = 256 + chars(dto.getName()) + chars(dto.getDescription()) + chars(dto.getBrand())
+                + chars(dto.getCategoryName()) + chars(dto.getSubCategoryName()) + chars(dto.getVendorName());
+        if (dto.getImages() != null) {
+            for (FileDataDTO image : dto.getImages()) {
+                bytes += 96 + chars(image.getFileName()) + chars(image.getFilePath()) + chars(image.getFileType())
+                        + chars(image.getAltText()) + chars(image.getMimeType());
+            }
+        }
+        if (dto.getSpecifications() != null) {
+            for (ProductSpecificationDTO spec : dto.getSpecifications()) {
+                bytes += 48 + chars(spec.getKey()) + chars(spec.getValue());
+            }
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static long chars(String value) {
+        return value != null ? 40 + 2L * value.length() : 0;
+    }
+}
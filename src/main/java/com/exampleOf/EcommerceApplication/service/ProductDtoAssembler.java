@@ -0,0 +1,159 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.dto.requestdto.FileDataDTO;
+import com.exampleOf.EcommerceApplication.dto.requestdto.ProductSpecificationDTO;
+import com.exampleOf.EcommerceApplication.dto.responsedto.ProductResponseDTO;
+import com.exampleOf.EcommerceApplication.entity.FileData;
+import com.exampleOf.EcommerceApplication.entity.Product;
+import com.exampleOf.EcommerceApplication.entity.ProductSpecification;
+import com.exampleOf.EcommerceApplication.repository.CategoryRepo;
+import com.exampleOf.EcommerceApplication.repository.FileDataRepo;
+import com.exampleOf.EcommerceApplication.repository.ProductSpecificationRepo;
+import com.exampleOf.EcommerceApplication.repository.SubCategoryRepo;
+import com.exampleOf.EcommerceApplication.repository.VendorRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Builds {@link ProductResponseDTO}s. For lists, the images, specifications and vendor, category
+ * and sub-category names of the whole page are loaded with one IN query each, so mapping a page
+ * costs the same five queries whatever its size instead of several per product.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductDtoAssembler {
+
+    // Keeps IN lists a sane size when a whole catalog is mapped at once
+    private static final int HYDRATION_CHUNK = 500;
+
+    private final FileDataRepo fileDataRepo;
+    private final ProductSpecificationRepo specificationRepo;
+    private final VendorRepository vendorRepo;
+    private final CategoryRepo categoryRepo;
+    private final SubCategoryRepo subCategoryRepo;
+    private final ProductViewCounter productViewCounter;
+    private final InventoryLedger inventoryLedger;
+
+    // Single product: walks the entity's own associations
+    public ProductResponseDTO toDto(Product product) {
+        ProductResponseDTO dto = baseDto(product);
+        dto.setImages(product.getImages() != null
+                ? product.getImages().stream().map(this::mapFileDataToDTO).collect(Collectors.toList())
+                : new ArrayList<>());
+        dto.setSpecifications(product.getSpecifications() != null
+                ? product.getSpecifications().stream().map(this::mapSpecificationToDTO).collect(Collectors.toList())
+                : new ArrayList<>());
+        dto.setCategoryName(product.getCategory() != null ? product.getCategory().getName() : null);
+        dto.setVendorId(product.getVendor() != null ? product.getVendor().getId() : null);
+        dto.setVendorName(product.getVendor() != null ? product.getVendor().getShopName() : null);
+        dto.setSubCategoryName(product.getSubCategory() != null ? product.getSubCategory().getName() : null);
+        return dto;
+    }
+
+    // A page of products: associations are read only by id and resolved in batches
+    public List<ProductResponseDTO> toDtos(List<Product> products) {
+        List<ProductResponseDTO> dtos = new ArrayList<>(products.size());
+        for (int from = 0; from < products.size(); from += HYDRATION_CHUNK) {
+            dtos.addAll(hydrate(products.subList(from, Math.min(from + HYDRATION_CHUNK, products.size()))));
+        }
+        return dtos;
+    }
+
+    private List<ProductResponseDTO> hydrate(List<Product> products) {
+        Set<Long> productIds = new HashSet<>();
+        Set<Long> vendorIds = new HashSet<>();
+        Set<Long> categoryIds = new HashSet<>();
+        Set<Long> subCategoryIds = new HashSet<>();
+        for (Product product : products) {
+            productIds.add(product.getId());
+            if (product.getVendor() != null) vendorIds.add(product.getVendor().getId());
+            if (product.getCategory() != null) categoryIds.add(product.getCategory().getId());
+            if (product.getSubCategory() != null) subCategoryIds.add(product.getSubCategory().getId());
+        }
+
+        Map<Long, List<FileDataDTO>> images = new HashMap<>();
+        for (Object[] row : fileDataRepo.findWithProductIdByProductIdIn(productIds)) {
+            images.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(mapFileDataToDTO((FileData) row[1]));
+        }
+        Map<Long, List<ProductSpecificationDTO>> specifications = new HashMap<>();
+        for (Object[] row : specificationRepo.findWithProductIdByProductIdIn(productIds)) {
+            specifications.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add(mapSpecificationToDTO((ProductSpecification) row[1]));
+        }
+        Map<Long, String> vendorNames = vendorIds.isEmpty() ? Map.of() : toNameMap(vendorRepo.findShopNamesByIdIn(vendorIds));
+        Map<Long, String> categoryNames = categoryIds.isEmpty() ? Map.of() : toNameMap(categoryRepo.findNamesByIdIn(categoryIds));
+        Map<Long, String> subCategoryNames = subCategoryIds.isEmpty() ? Map.of() : toNameMap(subCategoryRepo.findNamesByIdIn(subCategoryIds));
+
+        List<ProductResponseDTO> dtos = new ArrayList<>(products.size());
+        for (Product product : products) {
+            ProductResponseDTO dto = baseDto(product);
+            dto.setImages(images.getOrDefault(product.getId(), new ArrayList<>()));
+            dto.setSpecifications(specifications.getOrDefault(product.getId(), new ArrayList<>()));
+            if (product.getVendor() != null) {
+                dto.setVendorId(product.getVendor().getId());
+                dto.setVendorName(vendorNames.get(product.getVendor().getId()));
+            }
+            dto.setCategoryName(product.getCategory() != null ? categoryNames.get(product.getCategory().getId()) : null);
+            dto.setSubCategoryName(product.getSubCategory() != null ? subCategoryNames.get(product.getSubCategory().getId()) : null);
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    public FileDataDTO mapFileDataToDTO(FileData fileData) {
+        return FileDataDTO.builder()
+                .id(fileData.getId())
+                .fileName(fileData.getFileName())
+                .filePath(fileData.getFilePath())
+                .fileType(fileData.getFileType())
+                .fileSize(fileData.getFileSize())
+                .altText(fileData.getAltText())
+                .sortOrder(fileData.getSortOrder())
+                .isPrimary(fileData.getIsPrimary())
+                .mimeType(fileData.getMimeType())
+                .build();
+    }
+
+    // ==================== HELPERS ====================
+
+    private ProductResponseDTO baseDto(Product product) {
+        ProductResponseDTO dto = new ProductResponseDTO();
+        dto.setId(product.getId());
+        dto.setName(product.getName());
+        dto.setDescription(product.getDescription());
+        dto.setPrice(product.getPrice());
+        // Live stock for products the inventory ledger has loaded
+        dto.setStock(inventoryLedger.available(product.getId(), product.getStock()));
+        dto.setDiscount(product.getDiscount());
+        dto.setBrand(product.getBrand());
+        dto.setStatus(product.getStatus());
+        // Views still buffered in the write-behind counter are included
+        long views = (product.getViewCount() != null ? product.getViewCount() : 0)
+                + productViewCounter.pending(product.getId());
+        dto.setViewCount((int) Math.min(views, Integer.MAX_VALUE));
+        dto.setSalesCount(product.getSalesCount());
+        dto.setRating(product.getRating());
+        dto.setCreatedAt(product.getCreatedAt());
+        dto.setUpdatedAt(product.getUpdatedAt());
+        return dto;
+    }
+
+    private ProductSpecificationDTO mapSpecificationToDTO(ProductSpecification spec) {
+        ProductSpecificationDTO specDTO = new ProductSpecificationDTO();
+        specDTO.setKey(spec.getKey());
+        specDTO.setValue(spec.getValue());
+        specDTO.setDisplayOrder(spec.getDisplayOrder());
+        return specDTO;
+    }
+
+    private static Map<Long, String> toNameMap(List<Object[]> rows) {
+        Map<Long, String> names = new HashMap<>();
+        for (Object[] row : rows) {
+            names.put((Long) row[0], (String) row[1]);
+        }
+        return names;
+    }
+}
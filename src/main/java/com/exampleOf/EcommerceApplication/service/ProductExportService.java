@@ -0,0 +1,104 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.dto.responsedto.ProductResponseDTO;
+import com.exampleOf.EcommerceApplication.entity.Product;
+import com.exampleOf.EcommerceApplication.enums.ExportFormat;
+import com.exampleOf.EcommerceApplication.repository.ProductRepo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Streams the whole catalog as NDJSON or CSV.
+ * Products come from a forward-only cursor, are hydrated a chunk at a time and written straight
+ * to the response; the persistence context is cleared after every chunk, so memory stays flat
+ * however many products there are. A slow client blocks the writes, which holds back the reads.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductExportService {
+
+    private static final String CSV_HEADER = "id,name,brand,price,discount,stock,status,category,subCategory,"
+            + "vendorId,vendorName,viewCount,createdAt,updatedAt";
+
+    private final ProductRepo productRepo;
+    private final ProductDtoAssembler productDtoAssembler;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${product.export.chunk-size:500}")
+    private int chunkSize;
+
+    @Transactional(readOnly = true)
+    public void export(ExportFormat format, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<Product> products = productRepo.streamAll()) {
+            Iterator<Product> iterator = products.iterator();
+            List<Product> chunk = new ArrayList<>(chunkSize);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize || !iterator.hasNext()) {
+                    for (ProductResponseDTO dto : productDtoAssembler.toDtos(chunk)) {
+                        if (format == ExportFormat.CSV) {
+                            writeCsvRow(writer, dto);
+                        } else {
+                            writer.write(objectMapper.writeValueAsString(dto));
+                            writer.write('\n');
+                        }
+                    }
+                    count += chunk.size();
+                    chunk.clear();
+                    // Detach the chunk so loaded entities can be collected
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        log.info("Product export ({}) streamed {} products in {} ms", format, count, System.currentTimeMillis() - start);
+    }
+
+    private static void writeCsvRow(Writer writer, ProductResponseDTO dto) throws IOException {
+        Object[] values = {dto.getId(), dto.getName(), dto.getBrand(), dto.getPrice(), dto.getDiscount(),
+                dto.getStock(), dto.getStatus(), dto.getCategoryName(), dto.getSubCategoryName(),
+                dto.getVendorId(), dto.getVendorName(), dto.getViewCount(),
+                dto.getCreatedAt(), dto.getUpdatedAt()};
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(values[i]));
+        }
+        writer.write('\n');
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,677 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.config.SchedulingConfig;
+import com.exampleOf.EcommerceApplication.dto.responsedto.FacetCountDTO;
+import com.exampleOf.EcommerceApplication.entity.Product;
+import com.exampleOf.EcommerceApplication.enums.ProductStatus;
+import com.exampleOf.EcommerceApplication.enums.VendorStatus;
+import com.exampleOf.EcommerceApplication.repository.ProductRepo;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Faceted filter engine over purchasable products (product and vendor both ACTIVE).
+ * Every product gets a dense int ordinal; each facet value keeps a compressed bitmap of ordinals,
+ * and prices are kept in an ordinal array sorted by price for range lookups, updated in place.
+ * Filters are bitmap ANDs/ORs. Facet counts are intersections with the result of every filter
+ * except that facet's own, so picking a brand still shows the other brands' counts.
+ * Hook updates that arrive while a rebuild is loading are replayed onto the rebuilt index.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductFacetIndex implements ProductChangeListener {
+
+    private static final int RATING_BUCKETS = 6;
+    private static final Set<String> SORTABLE = Set.of("id", "name", "price", "rating", "createdAt", "salesCount", "viewCount");
+
+    private final ProductRepo productRepo;
+
+    @Value("${product.facets.batch-size:5000}")
+    private int batchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Ordinal bookkeeping
+    private final Map<Long, Integer> ordinalById = new HashMap<>();
+    private final ArrayDeque<Integer> freeOrdinals = new ArrayDeque<>();
+    private Row[] rows = new Row[1024];
+    private int nextOrdinal;
+
+    // Facet bitmaps
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final RoaringBitmap inStock = new RoaringBitmap();
+    private final RoaringBitmap featured = new RoaringBitmap();
+    private final RoaringBitmap[] ratingBuckets = new RoaringBitmap[RATING_BUCKETS];
+    private final Map<Long, RoaringBitmap> byCategory = new HashMap<>();
+    private final Map<Long, RoaringBitmap> bySubCategory = new HashMap<>();
+    private final Map<Long, RoaringBitmap> byVendor = new HashMap<>();
+    private final Map<String, RoaringBitmap> byBrand = new HashMap<>();
+    private final Map<String, String> brandLabels = new HashMap<>();
+    private final Map<Long, String> categoryNames = new HashMap<>();
+
+    // Ordinals sorted by price (parallel arrays, first priceCount slots used), kept sorted on every change
+    private int[] ordinalsByPrice = new int[1024];
+    private double[] sortedPrices = new double[1024];
+    private int priceCount;
+
+    // Hook updates made while a rebuild loads; replayed after its rows are swapped in
+    private final List<Runnable> changedDuringBuild = new ArrayList<>();
+    private boolean building;
+
+    private volatile boolean ready;
+
+    {
+        for (int i = 0; i < RATING_BUCKETS; i++) {
+            ratingBuckets[i] = new RoaringBitmap();
+        }
+    }
+
+    // ==================== BUILD ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    // Sales/view counters and vendor status changes are picked up by a periodic rebuild
+    @Scheduled(initialDelayString = "${product.facets.rebuild-interval-ms:600000}",
+            fixedDelayString = "${product.facets.rebuild-interval-ms:600000}",
+            scheduler = SchedulingConfig.INDEX_REBUILD_SCHEDULER)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        List<Row> loaded = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            building = true;
+            changedDuringBuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            long lastId = 0L;
+            List<Object[]> page;
+            do {
+                page = productRepo.findFacetFieldsAfter(lastId, ProductStatus.ACTIVE, VendorStatus.ACTIVE,
+                        PageRequest.of(0, batchSize));
+                for (Object[] r : page) {
+                    Row row = new Row();
+                    row.id = (Long) r[0];
+                    row.name = (String) r[1];
+                    row.brand = (String) r[2];
+                    row.price = r[3] != null ? ((BigDecimal) r[3]).doubleValue() : 0;
+                    row.stock = r[4] != null ? (Integer) r[4] : 0;
+                    row.rating = r[5] != null ? (Double) r[5] : 0;
+                    row.featured = Boolean.TRUE.equals(r[6]);
+                    row.salesCount = r[7] != null ? (Integer) r[7] : 0;
+                    row.viewCount = r[8] != null ? (Integer) r[8] : 0;
+                    row.createdAt = toEpochMillis((LocalDateTime) r[9]);
+                    row.categoryId = (Long) r[10];
+                    row.categoryName = (String) r[11];
+                    row.subCategoryId = (Long) r[12];
+                    row.vendorId = (Long) r[13];
+                    loaded.add(row);
+                    lastId = row.id;
+                }
+            } while (page.size() == batchSize);
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                building = false;
+                changedDuringBuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("Product facet index build failed, filters fall back to the database", ex);
+            return;
+        }
+        // Added in price order, every row lands at the end of the price arrays
+        loaded.sort(Comparator.comparingDouble(row -> row.price));
+
+        lock.writeLock().lock();
+        try {
+            clear();
+            for (Row row : loaded) {
+                addRow(row);
+            }
+            changedDuringBuild.forEach(Runnable::run);
+            changedDuringBuild.clear();
+            building = false;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product facet index built: {} products, {} brands in {} ms",
+                loaded.size(), byBrand.size(), System.currentTimeMillis() - start);
+    }
+
+    // ==================== HOOKS ====================
+
+    @Override
+    public void onProductSaved(Product product) {
+        boolean eligible = product.getStatus() == ProductStatus.ACTIVE
+                && product.getVendor() != null
+                && product.getVendor().getVendorStatus() == VendorStatus.ACTIVE;
+        Long productId = product.getId();
+        Row row = eligible ? Row.of(product) : null;
+        apply(() -> {
+            removeRow(productId);
+            if (row != null) {
+                addRow(row.copy());
+            }
+        });
+    }
+
+    @Override
+    public void onStockChanged(Long productId, int available) {
+        apply(() -> {
+            Integer ordinal = ordinalById.get(productId);
+            if (ordinal != null) {
+                rows[ordinal].stock = available;
+                if (available > 0) {
+                    inStock.add(ordinal);
+                } else {
+                    inStock.remove(ordinal);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void onProductDeleted(Long productId) {
+        apply(() -> removeRow(productId));
+    }
+
+    // Applies a change now and, while a rebuild is loading, again once its rows are swapped in
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (building) {
+                changedDuringBuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ==================== QUERY ====================
+
+    /**
+     * Filters, sorts and pages in memory. Returns null when the index is not built yet or the
+     * requested sort is not one the index keeps values for; the caller then uses the database.
+     */
+    public Result filter(Query query, Pageable pageable) {
+        if (!ready) {
+            return null;
+        }
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE.contains(order.getProperty())) {
+                return null;
+            }
+        }
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = matching(query, null);
+            boolean brandFiltered = query.brand != null && !query.brand.isBlank();
+            RoaringBitmap brandBase = brandFiltered ? matching(query, Facet.BRAND) : result;
+            RoaringBitmap categoryBase = query.categoryId != null ? matching(query, Facet.CATEGORY) : result;
+
+            List<FacetCountDTO> brandCounts = new ArrayList<>();
+            for (Map.Entry<String, RoaringBitmap> entry : byBrand.entrySet()) {
+                int count = RoaringBitmap.andCardinality(brandBase, entry.getValue());
+                if (count > 0) {
+                    brandCounts.add(new FacetCountDTO(null, brandLabels.get(entry.getKey()), count));
+                }
+            }
+            brandCounts.sort(Comparator.comparing(FacetCountDTO::getValue, String.CASE_INSENSITIVE_ORDER));
+
+            List<FacetCountDTO> categoryCounts = new ArrayList<>();
+            for (Map.Entry<Long, RoaringBitmap> entry : byCategory.entrySet()) {
+                int count = RoaringBitmap.andCardinality(categoryBase, entry.getValue());
+                if (count > 0) {
+                    categoryCounts.add(new FacetCountDTO(entry.getKey(), categoryNames.get(entry.getKey()), count));
+                }
+            }
+            categoryCounts.sort(Comparator.comparing(FacetCountDTO::getCount).reversed());
+
+            int low = lowestPricePosition(result);
+            int high = highestPricePosition(result);
+
+            List<Long> pageIds = page(result, pageable);
+            return new Result(pageIds, result.getCardinality(), brandCounts, categoryCounts,
+                    low >= 0 ? BigDecimal.valueOf(sortedPrices[low]) : null,
+                    high >= 0 ? BigDecimal.valueOf(sortedPrices[high]) : null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Every filter of the query except the skipped facet's own (null skips none)
+    private RoaringBitmap matching(Query query, Facet skip) {
+        RoaringBitmap result = all.clone();
+        if (query.categoryId != null && skip != Facet.CATEGORY) {
+            result.and(byCategory.getOrDefault(query.categoryId, new RoaringBitmap()));
+        }
+        if (query.subCategoryId != null) {
+            result.and(bySubCategory.getOrDefault(query.subCategoryId, new RoaringBitmap()));
+        }
+        if (query.vendorId != null) {
+            result.and(byVendor.getOrDefault(query.vendorId, new RoaringBitmap()));
+        }
+        if (query.brand != null && !query.brand.isBlank() && skip != Facet.BRAND) {
+            // Same semantics as the LIKE '%brand%' query: OR of every brand containing the text
+            String needle = query.brand.toLowerCase(Locale.ROOT);
+            RoaringBitmap brands = new RoaringBitmap();
+            byBrand.forEach((key, bitmap) -> {
+                if (key.contains(needle)) {
+                    brands.or(bitmap);
+                }
+            });
+            result.and(brands);
+        }
+        if (query.inStock != null) {
+            if (query.inStock) {
+                result.and(inStock);
+            } else {
+                result.andNot(inStock);
+            }
+        }
+        if (query.featured != null) {
+            if (query.featured) {
+                result.and(featured);
+            } else {
+                result.andNot(featured);
+            }
+        }
+        if (query.minRating != null) {
+            result.and(ratingAtLeast(query.minRating));
+        }
+        if (query.minPrice != null || query.maxPrice != null) {
+            result.and(priceBetween(query.minPrice, query.maxPrice));
+        }
+        return result;
+    }
+
+    private RoaringBitmap ratingAtLeast(double minRating) {
+        RoaringBitmap matches = new RoaringBitmap();
+        int firstFull = (int) Math.ceil(minRating);
+        for (int bucket = Math.max(firstFull, 0); bucket < RATING_BUCKETS; bucket++) {
+            matches.or(ratingBuckets[bucket]);
+        }
+        // The bucket holding minRating itself is only partially included
+        int partial = (int) Math.floor(minRating);
+        if (partial != firstFull && partial >= 0 && partial < RATING_BUCKETS) {
+            IntIterator it = ratingBuckets[partial].getIntIterator();
+            while (it.hasNext()) {
+                int ordinal = it.next();
+                if (rows[ordinal].rating >= minRating) {
+                    matches.add(ordinal);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private RoaringBitmap priceBetween(Double min, Double max) {
+        int from = min != null ? lowerBound(sortedPrices, priceCount, min) : 0;
+        int to = max != null ? upperBound(sortedPrices, priceCount, max) : priceCount;
+        RoaringBitmap matches = new RoaringBitmap();
+        if (to > from) {
+            matches.addN(ordinalsByPrice, from, to - from);
+        }
+        return matches;
+    }
+
+    /*
+     * Cheapest and dearest match, as positions in the price arrays (-1 when nothing matched).
+     * A large result is found within a few steps of either end of the price order; a small one is
+     * cheaper to walk directly. Either way the work is bounded by the result size.
+     */
+    private int lowestPricePosition(RoaringBitmap result) {
+        int card = result.getCardinality();
+        if (card == 0) {
+            return -1;
+        }
+        if ((long) card * card > priceCount) {
+            for (int i = 0, limit = Math.min(priceCount, card); i < limit; i++) {
+                if (result.contains(ordinalsByPrice[i])) {
+                    return i;
+                }
+            }
+        }
+        return pricePosition(extreme(result, true));
+    }
+
+    private int highestPricePosition(RoaringBitmap result) {
+        int card = result.getCardinality();
+        if (card == 0) {
+            return -1;
+        }
+        if ((long) card * card > priceCount) {
+            for (int i = priceCount - 1, limit = Math.max(0, priceCount - card); i >= limit; i--) {
+                if (result.contains(ordinalsByPrice[i])) {
+                    return i;
+                }
+            }
+        }
+        return pricePosition(extreme(result, false));
+    }
+
+    private int extreme(RoaringBitmap result, boolean lowest) {
+        int best = -1;
+        IntIterator it = result.getIntIterator();
+        while (it.hasNext()) {
+            int ordinal = it.next();
+            if (best < 0 || (lowest ? rows[ordinal].price < rows[best].price : rows[ordinal].price > rows[best].price)) {
+                best = ordinal;
+            }
+        }
+        return best;
+    }
+
+    /** Picks the requested page with a bounded heap instead of sorting the whole result. */
+    private List<Long> page(RoaringBitmap result, Pageable pageable) {
+        long end = pageable.getOffset() + pageable.getPageSize();
+        if (pageable.getOffset() >= result.getCardinality()) {
+            return List.of();
+        }
+        Comparator<Integer> order = comparator(pageable.getSort());
+        int keep = (int) Math.min(end, result.getCardinality());
+        PriorityQueue<Integer> heap = new PriorityQueue<>(keep, order.reversed());
+        IntIterator it = result.getIntIterator();
+        while (it.hasNext()) {
+            int ordinal = it.next();
+            if (heap.size() < keep) {
+                heap.add(ordinal);
+            } else if (order.compare(ordinal, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(ordinal);
+            }
+        }
+        List<Integer> top = new ArrayList<>(heap);
+        top.sort(order);
+        List<Long> ids = new ArrayList<>();
+        for (int i = (int) pageable.getOffset(); i < top.size(); i++) {
+            ids.add(rows[top.get(i)].id);
+        }
+        return ids;
+    }
+
+    private Comparator<Integer> comparator(Sort sort) {
+        Comparator<Integer> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Integer> next = switch (order.getProperty()) {
+                case "name" -> Comparator.comparing(o -> rows[o].name, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+                case "price" -> Comparator.comparingDouble(o -> rows[o].price);
+                case "rating" -> Comparator.comparingDouble(o -> rows[o].rating);
+                case "createdAt" -> Comparator.comparingLong(o -> rows[o].createdAt);
+                case "salesCount" -> Comparator.comparingInt(o -> rows[o].salesCount);
+                case "viewCount" -> Comparator.comparingInt(o -> rows[o].viewCount);
+                default -> Comparator.comparingLong(o -> rows[o].id);
+            };
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        Comparator<Integer> byId = Comparator.comparingLong(o -> rows[o].id);
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+
+    // ==================== INTERNALS (caller holds the write lock) ====================
+
+    private void addRow(Row row) {
+        int ordinal = freeOrdinals.isEmpty() ? nextOrdinal++ : freeOrdinals.pop();
+        if (ordinal >= rows.length) {
+            rows = Arrays.copyOf(rows, rows.length * 2);
+        }
+        rows[ordinal] = row;
+        ordinalById.put(row.id, ordinal);
+
+        all.add(ordinal);
+        if (row.stock > 0) {
+            inStock.add(ordinal);
+        }
+        if (row.featured) {
+            featured.add(ordinal);
+        }
+        ratingBuckets[ratingBucket(row.rating)].add(ordinal);
+        if (row.categoryId != null) {
+            byCategory.computeIfAbsent(row.categoryId, k -> new RoaringBitmap()).add(ordinal);
+            categoryNames.put(row.categoryId, row.categoryName);
+        }
+        if (row.subCategoryId != null) {
+            bySubCategory.computeIfAbsent(row.subCategoryId, k -> new RoaringBitmap()).add(ordinal);
+        }
+        if (row.vendorId != null) {
+            byVendor.computeIfAbsent(row.vendorId, k -> new RoaringBitmap()).add(ordinal);
+        }
+        if (row.brand != null && !row.brand.isBlank()) {
+            String key = row.brand.trim().toLowerCase(Locale.ROOT);
+            byBrand.computeIfAbsent(key, k -> new RoaringBitmap()).add(ordinal);
+            brandLabels.putIfAbsent(key, row.brand.trim());
+        }
+        insertPrice(ordinal, row.price);
+    }
+
+    private void removeRow(Long productId) {
+        Integer ordinal = ordinalById.remove(productId);
+        if (ordinal == null) {
+            return;
+        }
+        Row row = rows[ordinal];
+        all.remove(ordinal);
+        inStock.remove(ordinal);
+        featured.remove(ordinal);
+        ratingBuckets[ratingBucket(row.rating)].remove(ordinal);
+        removeFrom(byCategory, row.categoryId, ordinal);
+        removeFrom(bySubCategory, row.subCategoryId, ordinal);
+        removeFrom(byVendor, row.vendorId, ordinal);
+        if (row.brand != null && !row.brand.isBlank()) {
+            String key = row.brand.trim().toLowerCase(Locale.ROOT);
+            if (removeFrom(byBrand, key, ordinal)) {
+                brandLabels.remove(key);
+            }
+        }
+        removePrice(pricePosition(ordinal));
+        rows[ordinal] = null;
+        freeOrdinals.push(ordinal);
+    }
+
+    /** Removes the ordinal and drops the bitmap once empty; returns true if it was dropped. */
+    private static <K> boolean removeFrom(Map<K, RoaringBitmap> index, K key, int ordinal) {
+        if (key == null) {
+            return false;
+        }
+        RoaringBitmap bitmap = index.get(key);
+        if (bitmap == null) {
+            return false;
+        }
+        bitmap.remove(ordinal);
+        if (bitmap.isEmpty()) {
+            index.remove(key);
+            return true;
+        }
+        return false;
+    }
+
+    // Shifts the tail of the price arrays by one slot: a primitive copy, no boxing or re-sort
+    private void insertPrice(int ordinal, double price) {
+        if (priceCount == ordinalsByPrice.length) {
+            ordinalsByPrice = Arrays.copyOf(ordinalsByPrice, priceCount * 2);
+            sortedPrices = Arrays.copyOf(sortedPrices, priceCount * 2);
+        }
+        int at = upperBound(sortedPrices, priceCount, price);
+        System.arraycopy(ordinalsByPrice, at, ordinalsByPrice, at + 1, priceCount - at);
+        System.arraycopy(sortedPrices, at, sortedPrices, at + 1, priceCount - at);
+        ordinalsByPrice[at] = ordinal;
+        sortedPrices[at] = price;
+        priceCount++;
+    }
+
+    private void removePrice(int at) {
+        if (at < 0) {
+            return;
+        }
+        System.arraycopy(ordinalsByPrice, at + 1, ordinalsByPrice, at, priceCount - at - 1);
+        System.arraycopy(sortedPrices, at + 1, sortedPrices, at, priceCount - at - 1);
+        priceCount--;
+    }
+
+    // Slot of an indexed ordinal in the price arrays: binary search to its price, then along equal prices
+    private int pricePosition(int ordinal) {
+        double price = rows[ordinal].price;
+        for (int i = lowerBound(sortedPrices, priceCount, price); i < priceCount && sortedPrices[i] == price; i++) {
+            if (ordinalsByPrice[i] == ordinal) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void clear() {
+        ordinalById.clear();
+        freeOrdinals.clear();
+        rows = new Row[1024];
+        nextOrdinal = 0;
+        all.clear();
+        inStock.clear();
+        featured.clear();
+        for (int i = 0; i < RATING_BUCKETS; i++) {
+            ratingBuckets[i] = new RoaringBitmap();
+        }
+        byCategory.clear();
+        bySubCategory.clear();
+        byVendor.clear();
+        byBrand.clear();
+        brandLabels.clear();
+        categoryNames.clear();
+        priceCount = 0;
+    }
+
+    private static int ratingBucket(double rating) {
+        return (int) Math.max(0, Math.min(RATING_BUCKETS - 1, Math.floor(rating)));
+    }
+
+    private static int lowerBound(double[] values, int length, double key) {
+        int low = 0, high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) low = mid + 1; else high = mid;
+        }
+        return low;
+    }
+
+    private static int upperBound(double[] values, int length, double key) {
+        int low = 0, high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= key) low = mid + 1; else high = mid;
+        }
+        return low;
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time != null ? time.toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+    }
+
+    // ==================== TYPES ====================
+
+    private enum Facet { BRAND, CATEGORY }
+
+    @Getter
+    @Builder
+    public static class Query {
+        private final Long categoryId;
+        private final Long subCategoryId;
+        private final Long vendorId;
+        private final Double minPrice;
+        private final Double maxPrice;
+        private final String brand;
+        private final Boolean inStock;
+        private final Boolean featured;
+        private final Double minRating;
+    }
+
+    public record Result(List<Long> pageIds, long total, List<FacetCountDTO> brands,
+                         List<FacetCountDTO> categories, BigDecimal minPrice, BigDecimal maxPrice) {
+    }
+
+    private static final class Row {
+        long id;
+        String name;
+        String brand;
+        double price;
+        int stock;
+        double rating;
+        boolean featured;
+        int salesCount;
+        int viewCount;
+        long createdAt;
+        Long categoryId;
+        String categoryName;
+        Long subCategoryId;
+        Long vendorId;
+
+        // Replayed changes each get their own row, the first application keeps the original
+        Row copy() {
+            Row row = new Row();
+            row.id = id;
+            row.name = name;
+            row.brand = brand;
+            row.price = price;
+            row.stock = stock;
+            row.rating = rating;
+            row.featured = featured;
+            row.salesCount = salesCount;
+            row.viewCount = viewCount;
+            row.createdAt = createdAt;
+            row.categoryId = categoryId;
+            row.categoryName = categoryName;
+            row.subCategoryId = subCategoryId;
+            row.vendorId = vendorId;
+            return row;
+        }
+
+        static Row of(Product product) {
+            Row row = new Row();
+            row.id = product.getId();
+            row.name = product.getName();
+            row.brand = product.getBrand();
+            row.price = product.getPrice() != null ? product.getPrice().doubleValue() : 0;
+            row.stock = product.getStock() != null ? product.getStock() : 0;
+            row.rating = product.getRating() != null ? product.getRating() : 0;
+            row.featured = Boolean.TRUE.equals(product.getIsFeatured());
+            row.salesCount = product.getSalesCount() != null ? product.getSalesCount() : 0;
+            row.viewCount = product.getViewCount() != null ? product.getViewCount() : 0;
+            row.createdAt = toEpochMillis(product.getCreatedAt());
+            if (product.getCategory() != null) {
+                row.categoryId = product.getCategory().getId();
+                row.categoryName = product.getCategory().getName();
+            }
+            row.subCategoryId = product.getSubCategory() != null ? product.getSubCategory().getId() : null;
+            row.vendorId = product.getVendor() != null ? product.getVendor().getId() : null;
+            return row;
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.entity.Product;
+import com.exampleOf.EcommerceApplication.repository.ProductRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product name, brand and description.
+ * Each term maps to a posting list of product ids kept sorted, with a field-weighted term frequency.
+ * Queries are ranked with BM25.
+ * Matching differs from the database fallback (one substring LIKE over the whole keyword): the keyword
+ * is split into words and a product must contain every word, each as a whole indexed word or a word
+ * prefix. So "phone case" finds "Case for Phone", but "hone" no longer matches "phone".
+ * A prefix expands to at most MAX_PREFIX_EXPANSIONS words, the ones found in the most products;
+ * rarer words it prefixes are not searched. One-letter prefixes only match that exact word.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex implements ProductChangeListener {
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int BRAND_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final double PREFIX_MATCH_FACTOR = 0.5;
+
+    private final ProductRepo productRepo;
+
+    @Value("${product.search.index.batch-size:5000}")
+    private int batchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> dictionary = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private long totalLength;
+
+    // Products touched while the initial build is running; re-read once it finishes
+    private final Set<Long> changedDuringBuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean building;
+    private volatile boolean ready;
+
+    // ==================== BUILD ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        building = true;
+        changedDuringBuild.clear();
+        clear();
+        try {
+            long lastId = 0L;
+            List<Object[]> rows;
+            do {
+                rows = productRepo.findSearchFieldsAfter(lastId, PageRequest.of(0, batchSize));
+                lock.writeLock().lock();
+                try {
+                    for (Object[] row : rows) {
+                        Long id = (Long) row[0];
+                        removeDocument(id);
+                        addDocument(id, (String) row[1], (String) row[2], (String) row[3]);
+                        lastId = id;
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } while (rows.size() == batchSize);
+
+            building = false;
+            for (Long id : changedDuringBuild) {
+                productRepo.findById(id).ifPresentOrElse(this::index, () -> remove(id));
+            }
+            changedDuringBuild.clear();
+            ready = true;
+            log.info("Product search index built: {} products, {} terms in {} ms",
+                    documents.size(), dictionary.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException ex) {
+            building = false;
+            log.error("Product search index build failed, searches fall back to the database", ex);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ==================== HOOKS ====================
+
+    @Override
+    public void onProductSaved(Product product) {
+        if (building) {
+            changedDuringBuild.add(product.getId());
+        }
+        index(product);
+    }
+
+    @Override
+    public void onProductDeleted(Long productId) {
+        if (building) {
+            changedDuringBuild.add(productId);
+        }
+        remove(productId);
+    }
+
+    public void index(Product product) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(product.getId());
+            addDocument(product.getId(), product.getName(), product.getBrand(), product.getDescription());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ==================== QUERY ====================
+
+    /**
+     * Ranked product ids matching every term of the keyword (the last characters of a term may be
+     * an unfinished word, so terms also expand to the MAX_PREFIX_EXPANSIONS most common indexed words
+     * they prefix).
+     * Words are never matched in the middle, unlike the LIKE fallback.
+     * Returns null when the index cannot answer and the caller should query the database instead.
+     */
+    public List<SearchHit> search(String keyword) {
+        if (!ready) {
+            return null;
+        }
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(tokenize(keyword)));
+        if (queryTerms.isEmpty()) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            int docCount = documents.size();
+            if (docCount == 0) {
+                return List.of();
+            }
+            double avgLength = (double) totalLength / docCount;
+
+            Map<Long, Double> scores = null;
+            for (String queryTerm : queryTerms) {
+                Map<Long, Double> termScores = scoreTerm(queryTerm, docCount, avgLength);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    Map<Long, Double> merged = new HashMap<>();
+                    Map<Long, Double> smaller = scores.size() <= termScores.size() ? scores : termScores;
+                    Map<Long, Double> larger = smaller == scores ? termScores : scores;
+                    for (Map.Entry<Long, Double> entry : smaller.entrySet()) {
+                        Double other = larger.get(entry.getKey());
+                        if (other != null) {
+                            merged.put(entry.getKey(), entry.getValue() + other);
+                        }
+                    }
+                    scores = merged;
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<SearchHit> hits = new ArrayList<>(scores.size());
+            scores.forEach((id, score) -> hits.add(new SearchHit(id, score)));
+            hits.sort(SearchHit.RANKING);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreTerm(String queryTerm, int docCount, double avgLength) {
+        Map<Long, Double> scores = new HashMap<>();
+        for (Map.Entry<String, Postings> entry : expansions(queryTerm)) {
+            String term = entry.getKey();
+            double factor = term.length() == queryTerm.length() ? 1.0 : PREFIX_MATCH_FACTOR;
+            Postings postings = entry.getValue();
+            double idf = Math.log(1 + (docCount - postings.size + 0.5) / (postings.size + 0.5));
+            for (int i = 0; i < postings.size; i++) {
+                long id = postings.ids[i];
+                int tf = postings.freqs[i];
+                double norm = tf * (K1 + 1) / (tf + K1 * (1 - B + B * documents.get(id).length / avgLength));
+                scores.merge(id, factor * idf * norm, Double::sum);
+            }
+        }
+        return scores;
+    }
+
+    // The term itself plus the words it prefixes found in the most products, not the first ones alphabetically
+    private List<Map.Entry<String, Postings>> expansions(String queryTerm) {
+        if (queryTerm.length() < MIN_PREFIX_LENGTH) {
+            Postings exact = dictionary.get(queryTerm);
+            return exact != null ? List.of(Map.entry(queryTerm, exact)) : List.of();
+        }
+        PriorityQueue<Map.Entry<String, Postings>> top =
+                new PriorityQueue<>(Comparator.comparingInt(entry -> entry.getValue().size));
+        Map.Entry<String, Postings> exact = null;
+        for (Map.Entry<String, Postings> entry : dictionary.tailMap(queryTerm, true).entrySet()) {
+            if (!entry.getKey().startsWith(queryTerm)) {
+                break;
+            }
+            if (entry.getKey().length() == queryTerm.length()) {
+                exact = entry;
+                continue;
+            }
+            top.add(entry);
+            if (top.size() > MAX_PREFIX_EXPANSIONS) {
+                top.poll();
+            }
+        }
+        List<Map.Entry<String, Postings>> terms = new ArrayList<>(top);
+        if (exact != null) {
+            terms.add(exact);
+        }
+        return terms;
+    }
+
+    // ==================== INTERNALS (caller holds the write lock) ====================
+
+    private void addDocument(Long id, String name, String brand, String description) {
+        Map<String, Integer> freqs = new HashMap<>();
+        int length = addTokens(freqs, name, NAME_WEIGHT)
+                + addTokens(freqs, brand, BRAND_WEIGHT)
+                + addTokens(freqs, description, DESCRIPTION_WEIGHT);
+
+        String[] terms = freqs.keySet().toArray(new String[0]);
+        for (String term : terms) {
+            dictionary.computeIfAbsent(term, t -> new Postings()).put(id, freqs.get(term));
+        }
+        documents.put(id, new Document(terms, length));
+        totalLength += length;
+    }
+
+    private void removeDocument(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        totalLength -= document.length;
+        for (String term : document.terms) {
+            Postings postings = dictionary.get(term);
+            if (postings != null && postings.remove(id) && postings.size == 0) {
+                dictionary.remove(term);
+            }
+        }
+    }
+
+    private void clear() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            dictionary.clear();
+            documents.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static int addTokens(Map<String, Integer> freqs, String text, int weight) {
+        List<String> tokens = tokenize(text);
+        for (String token : tokens) {
+            freqs.merge(token, weight, Integer::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // ==================== TYPES ====================
+
+    public record SearchHit(long productId, double score) {
+        static final Comparator<SearchHit> RANKING = Comparator.comparingDouble(SearchHit::score).reversed()
+                .thenComparingLong(SearchHit::productId);
+    }
+
+    private record Document(String[] terms, int length) {
+    }
+
+    /** Product ids in ascending order with a parallel array of weighted term frequencies. */
+    private static final class Postings {
+        long[] ids = new long[4];
+        int[] freqs = new int[4];
+        int size;
+
+        void put(long id, int freq) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                freqs[pos] = freq;
+                return;
+            }
+            pos = -pos - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            System.arraycopy(freqs, pos, freqs, pos + 1, size - pos);
+            ids[pos] = id;
+            freqs[pos] = freq;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            System.arraycopy(freqs, pos + 1, freqs, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+    }
+}
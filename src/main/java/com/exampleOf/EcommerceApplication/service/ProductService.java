@@ -1,38 +1,62 @@
 package com.exampleOf.EcommerceApplication.service;
 
+import com.exampleOf.EcommerceApplication.Exception.CustomException.BadRequestException;
 import com.exampleOf.EcommerceApplication.Exception.CustomException.OperationFailedException;
 import com.exampleOf.EcommerceApplication.Exception.CustomException.ResourceNotFoundException;
 import com.exampleOf.EcommerceApplication.Exception.CustomException.UnauthorizedAccessException;
-import com.exampleOf.EcommerceApplication.dto.requestdto.FileDataDTO;
 import com.exampleOf.EcommerceApplication.dto.requestdto.ProductRequestDTO;
 import com.exampleOf.EcommerceApplication.dto.requestdto.ProductSpecificationDTO;
+import com.exampleOf.EcommerceApplication.dto.responsedto.CacheStatsDTO;
+import com.exampleOf.EcommerceApplication.dto.responsedto.CursorPageDTO;
+import com.exampleOf.EcommerceApplication.dto.responsedto.FacetCountDTO;
+import com.exampleOf.EcommerceApplication.dto.responsedto.FacetedProductPageDTO;
 import com.exampleOf.EcommerceApplication.dto.responsedto.ProductResponseDTO;
+import com.exampleOf.EcommerceApplication.dto.responsedto.ProductSuggestionDTO;
 import com.exampleOf.EcommerceApplication.entity.*;
 import com.exampleOf.EcommerceApplication.enums.ProductStatus;
 import com.exampleOf.EcommerceApplication.enums.VendorStatus;
 import com.exampleOf.EcommerceApplication.repository.*;
+import com.exampleOf.EcommerceApplication.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
+    private static final int MAX_SCROLL_SIZE = 100;
+    private static final Set<String> SCROLL_SORT_FIELDS =
+            Set.of("id", "name", "price", "rating", "createdAt", "updatedAt", "salesCount", "viewCount", "stock");
+    private static final String CURSOR_DIRECTION_KEY = "$dir";
+
     private final ProductRepo productRepo;
     private final CategoryRepo categoryRepo;
     private final VendorRepository vendorRepo;
     private final ProductSpecificationRepo specificationRepo;
     private final SubCategoryRepo subCategoryRepo;
     private final FileDataRepo fileDataRepo;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final ProductFacetIndex productFacetIndex;
+    private final ProductChangePublisher productChangePublisher;
+    private final TrendingLeaderboard trendingLeaderboard;
+    private final ProductViewCounter productViewCounter;
+    private final ProductDetailCache productDetailCache;
+    private final ProductDtoAssembler productDtoAssembler;
+    private final InventoryLedger inventoryLedger;
 
     // ==================== MAPPING METHODS ====================
 
@@ -84,67 +108,16 @@ public class ProductService {
     }
 
     private ProductResponseDTO toDto(Product product) {
-        ProductResponseDTO dto = new ProductResponseDTO();
-        dto.setId(product.getId());
-        dto.setName(product.getName());
-        dto.setDescription(product.getDescription());
-        dto.setPrice(product.getPrice());
-        dto.setStock(product.getStock());
-        dto.setDiscount(product.getDiscount());
-        dto.setBrand(product.getBrand());
-        dto.setStatus(product.getStatus());
-        dto.setViewCount(product.getViewCount());
-        dto.setSalesCount(product.getSalesCount());
-        dto.setRating(product.getRating());
-        dto.setCreatedAt(product.getCreatedAt());
-        dto.setUpdatedAt(product.getUpdatedAt());
-
-        // Map images
-        if (product.getImages() != null && !product.getImages().isEmpty()) {
-            List<FileDataDTO> imageDTOs = product.getImages().stream()
-                    .map(this::mapFileDataToDTO)
-                    .collect(Collectors.toList());
-            dto.setImages(imageDTOs);
-        } else {
-            dto.setImages(new ArrayList<>());
-        }
-
-        dto.setCategoryName(product.getCategory() != null ? product.getCategory().getName() : null);
-        dto.setVendorId(product.getVendor() != null ? product.getVendor().getId() : null);
-        dto.setVendorName(product.getVendor() != null ? product.getVendor().getShopName() : null);
-        dto.setSubCategoryName(product.getSubCategory() != null ? product.getSubCategory().getName() : null);
+        return productDtoAssembler.toDto(product);
+    }
 
-        // Handle specifications
-        if (product.getSpecifications() != null && !product.getSpecifications().isEmpty()) {
-            List<ProductSpecificationDTO> specDTOs = product.getSpecifications().stream()
-                    .map(spec -> {
-                        ProductSpecificationDTO specDTO = new ProductSpecificationDTO();
-                        specDTO.setKey(spec.getKey());
-                        specDTO.setValue(spec.getValue());
-                        specDTO.setDisplayOrder(spec.getDisplayOrder());
-                        return specDTO;
-                    })
-                    .collect(Collectors.toList());
-            dto.setSpecifications(specDTOs);
-        } else {
-            dto.setSpecifications(new ArrayList<>());
-        }
-
-        return dto;
-    }
-
-    private FileDataDTO mapFileDataToDTO(FileData fileData) {
-        return FileDataDTO.builder()
-                .id(fileData.getId())
-                .fileName(fileData.getFileName())
-                .filePath(fileData.getFilePath())
-                .fileType(fileData.getFileType())
-                .fileSize(fileData.getFileSize())
-                .altText(fileData.getAltText())
-                .sortOrder(fileData.getSortOrder())
-                .isPrimary(fileData.getIsPrimary())
-                .mimeType(fileData.getMimeType())
-                .build();
+    // Lists and pages are hydrated in batches, a fixed number of queries per page
+    private List<ProductResponseDTO> toDtos(List<Product> products) {
+        return productDtoAssembler.toDtos(products);
+    }
+
+    private Page<ProductResponseDTO> toDtoPage(Page<Product> products) {
+        return new PageImpl<>(toDtos(products.getContent()), products.getPageable(), products.getTotalElements());
     }
 
     // ==================== VENDOR PRODUCT MANAGEMENT ====================
@@ -164,6 +137,7 @@ public class ProductService {
 
             Product product = toEntity(dto, category, vendor);
             Product savedProduct = productRepo.save(product);
+            productChangePublisher.productSaved(savedProduct);
             return toDto(savedProduct);
         } catch (Exception ex) {
             throw new OperationFailedException("Create product", ex.getMessage());
@@ -173,9 +147,7 @@ public class ProductService {
     public List<ProductResponseDTO> getProductsByVendor(Long vendorId) {
         try {
             List<Product> vendorProducts = productRepo.findByVendorId(vendorId);
-            return vendorProducts.stream()
-                    .map(this::toDto)
-                    .collect(Collectors.toList());
+            return toDtos(vendorProducts);
         } catch (Exception ex) {
             throw new OperationFailedException("Retrieve vendor products", ex.getMessage());
         }
@@ -184,7 +156,7 @@ public class ProductService {
     public Page<ProductResponseDTO> getProductsByVendor(Long vendorId, Pageable pageable) {
         try {
             Page<Product> vendorProducts = productRepo.findByVendorId(vendorId, pageable);
-            return vendorProducts.map(this::toDto);
+            return toDtoPage(vendorProducts);
         } catch (Exception ex) {
             throw new OperationFailedException("Retrieve vendor products", ex.getMessage());
         }
@@ -193,7 +165,7 @@ public class ProductService {
     public List<ProductResponseDTO> getActiveProductsByVendor(Long vendorId) {
         try {
             List<Product> products = productRepo.findByVendorIdAndStatus(vendorId, ProductStatus.ACTIVE);
-            return products.stream().map(this::toDto).collect(Collectors.toList());
+            return toDtos(products);
         } catch (Exception ex) {
             throw new OperationFailedException("Retrieve active vendor products", ex.getMessage());
         }
@@ -224,7 +196,8 @@ public class ProductService {
             existing.setName(dto.getName());
             existing.setDescription(dto.getDescription());
             existing.setPrice(dto.getPrice());
-            existing.setStock(dto.getStock());
+            // products.stock is not updatable through the entity; the ledger applies and flushes it
+            inventoryLedger.setStockAfterCommit(id, dto.getStock());
             existing.setCategory(category);
             existing.setDiscount(dto.getDiscount() != null ? dto.getDiscount() : existing.getDiscount());
             existing.setBrand(dto.getBrand() != null ? dto.getBrand() : existing.getBrand());
@@ -257,7 +230,8 @@ public class ProductService {
             }
 
             Product updated = productRepo.save(existing);
-            return toDto(updated);
+            productChangePublisher.productSaved(updated);
+            return toDto(updated).toBuilder().stock(dto.getStock()).build();
         } catch (Exception ex) {
             throw new OperationFailedException("Update product", ex.getMessage());
         }
@@ -274,6 +248,7 @@ public class ProductService {
             }
 
             productRepo.delete(product);
+            productChangePublisher.productDeleted(id);
         } catch (Exception ex) {
             throw new OperationFailedException("Delete product", ex.getMessage());
         }
@@ -283,24 +258,37 @@ public class ProductService {
 
     public ProductResponseDTO getProductById(Long id) {
         try {
-            Product product = productRepo.findById(id)
-                    .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
-
-            // Increment view count
-            productRepo.incrementViewCount(id);
-
-            return toDto(product);
+            // Detail DTOs are cached with the stored view count; buffered views are added per read
+            ProductResponseDTO cached = productDetailCache.get(id, key -> {
+                Product product = productRepo.findById(key)
+                        .orElseThrow(() -> new ResourceNotFoundException("Product", "id", key));
+                ProductResponseDTO dto = toDto(product);
+                dto.setViewCount(product.getViewCount() != null ? product.getViewCount() : 0);
+                return dto;
+            });
+
+            // Increment view count (buffered, written in batches)
+            productViewCounter.increment(id);
+            trendingLeaderboard.recordView(id);
+
+            long views = cached.getViewCount() + productViewCounter.pending(id);
+            return cached.toBuilder()
+                    .viewCount((int) Math.min(views, Integer.MAX_VALUE))
+                    .stock(inventoryLedger.available(id, cached.getStock()))
+                    .build();
         } catch (Exception ex) {
             throw new OperationFailedException("Get product by ID", ex.getMessage());
         }
     }
 
+    public CacheStatsDTO getProductCacheStats() {
+        return productDetailCache.stats();
+    }
+
     public List<ProductResponseDTO> getAllProducts() {
         try {
             List<Product> products = productRepo.findAll();
-            return products.stream()
-                    .map(this::toDto)
-                    .collect(Collectors.toList());
+            return toDtos(products);
         } catch (Exception ex) {
             throw new OperationFailedException("Retrieve all products", ex.getMessage());
         }
@@ -309,7 +297,7 @@ public class ProductService {
     public Page<ProductResponseDTO> getAllProducts(Pageable pageable) {
         try {
             Page<Product> products = productRepo.findAll(pageable);
-            return products.map(this::toDto);
+            return toDtoPage(products);
         } catch (Exception ex) {
             throw new OperationFailedException("Retrieve all products paginated", ex.getMessage());
         }
@@ -320,9 +308,7 @@ public class ProductService {
     public List<ProductResponseDTO> getProductsByCategory(Long categoryId) {
         try {
             List<Product> categoryProducts = productRepo.findByCategoryId(categoryId);
-            return categoryProducts.stream()
-                    .map(this::toDto)
-                    .collect(Collectors.toList());
+            return toDtos(categoryProducts);
         } catch (Exception ex) {
             throw new OperationFailedException("Retrieve category products", ex.getMessage());
         }
@@ -331,7 +317,7 @@ public class ProductService {
     public Page<ProductResponseDTO> getProductsByCategory(Long categoryId, Pageable pageable) {
         try {
             Page<Product> categoryProducts = productRepo.findByCategoryId(categoryId, pageable);
-            return categoryProducts.map(this::toDto);
+            return toDtoPage(categoryProducts);
         } catch (Exception ex) {
             throw new OperationFailedException("Retrieve category products paginated", ex.getMessage());
         }
@@ -340,9 +326,7 @@ public class ProductService {
     public List<ProductResponseDTO> getProductsByStatus(ProductStatus status) {
         try {
             List<Product> statusProducts = productRepo.findByStatus(status);
-            return statusProducts.stream()
-                    .map(this::toDto)
-                    .collect(Collectors.toList());
+            return toDtos(statusProducts);
         } catch (Exception ex) {
             throw new OperationFailedException("Retrieve products by status", ex.getMessage());
         }
@@ -352,10 +336,11 @@ public class ProductService {
 
     public List<ProductResponseDTO> searchProducts(String keyword) {
         try {
-            List<Product> products = productRepo.searchProducts(keyword);
-            return products.stream()
-                    .map(this::toDto)
-                    .collect(Collectors.toList());
+            List<ProductSearchIndex.SearchHit> hits = productSearchIndex.search(keyword);
+            List<Product> products = hits != null
+                    ? findAllInOrder(hits.stream().map(ProductSearchIndex.SearchHit::productId).toList())
+                    : productRepo.searchProducts(keyword);
+            return toDtos(products);
         } catch (Exception ex) {
             throw new OperationFailedException("Search products", ex.getMessage());
         }
@@ -363,13 +348,37 @@ public class ProductService {
 
     public Page<ProductResponseDTO> searchProducts(String keyword, Pageable pageable) {
         try {
-            Page<Product> products = productRepo.searchProducts(keyword, pageable);
-            return products.map(this::toDto);
+            List<ProductSearchIndex.SearchHit> hits = productSearchIndex.search(keyword);
+            if (hits == null) {
+                Page<Product> products = productRepo.searchProducts(keyword, pageable);
+                return toDtoPage(products);
+            }
+
+            // Only the requested page of the ranked hits is loaded from the database
+            int from = (int) Math.min(pageable.getOffset(), hits.size());
+            int to = Math.min(from + pageable.getPageSize(), hits.size());
+            List<Long> pageIds = hits.subList(from, to).stream()
+                    .map(ProductSearchIndex.SearchHit::productId)
+                    .toList();
+            List<ProductResponseDTO> content = toDtos(findAllInOrder(pageIds));
+            return new PageImpl<>(content, pageable, hits.size());
         } catch (Exception ex) {
             throw new OperationFailedException("Search products paginated", ex.getMessage());
         }
     }
 
+    public int maxSuggestions() {
+        return productSuggestIndex.maxLimit();
+    }
+
+    public List<ProductSuggestionDTO> suggestProducts(String keyword, int limit) {
+        try {
+            return productSuggestIndex.suggest(keyword, limit);
+        } catch (Exception ex) {
+            throw new OperationFailedException("Suggest products", ex.getMessage());
+        }
+    }
+
     // ✅ UPDATED: Filter products with pagination
     public Page<ProductResponseDTO> filterProducts(
             Long categoryId,
@@ -381,10 +390,20 @@ public class ProductService {
             Boolean inStock,
             Pageable pageable) {
         try {
+            ProductFacetIndex.Query query = ProductFacetIndex.Query.builder()
+                    .categoryId(categoryId).subCategoryId(subCategoryId)
+                    .minPrice(minPrice).maxPrice(maxPrice)
+                    .brand(brand).minRating(minRating).inStock(inStock)
+                    .build();
+            ProductFacetIndex.Result result = productFacetIndex.filter(query, pageable);
+            if (result != null) {
+                return toPage(result, pageable);
+            }
+
             Page<Product> products = productRepo.findByFilters(
                     categoryId, subCategoryId, minPrice, maxPrice,
                     brand, minRating, inStock, pageable);
-            return products.map(this::toDto);
+            return toDtoPage(products);
         } catch (Exception ex) {
             throw new OperationFailedException("Filter products", ex.getMessage());
         }
@@ -397,21 +416,242 @@ public class ProductService {
             ProductStatus status, Boolean inStock, Boolean featured,
             Double minRating, Pageable pageable) {
         try {
+            // The facet index only holds ACTIVE products, other statuses still go to the database
+            if (status == ProductStatus.ACTIVE) {
+                ProductFacetIndex.Query query = ProductFacetIndex.Query.builder()
+                        .categoryId(categoryId).subCategoryId(subCategoryId).vendorId(vendorId)
+                        .minPrice(minPrice != null ? minPrice.doubleValue() : null)
+                        .maxPrice(maxPrice != null ? maxPrice.doubleValue() : null)
+                        .brand(brand).inStock(inStock).featured(featured).minRating(minRating)
+                        .build();
+                ProductFacetIndex.Result result = productFacetIndex.filter(query, pageable);
+                if (result != null) {
+                    return toPage(result, pageable);
+                }
+            }
+
             Page<Product> products = productRepo.findByAdvancedFilters(
                     categoryId, subCategoryId, vendorId, minPrice, maxPrice, brand,
                     status, inStock, featured, minRating, pageable);
-            return products.map(this::toDto);
+            return toDtoPage(products);
         } catch (Exception ex) {
             throw new OperationFailedException("Advanced filter products", ex.getMessage());
         }
     }
 
+    // ✅ Filter with brand/category facet counts and price bounds in one call
+    public FacetedProductPageDTO filterProductsFaceted(
+            Long categoryId,
+            Long subCategoryId,
+            Double minPrice,
+            Double maxPrice,
+            String brand,
+            Double minRating,
+            Boolean inStock,
+            Pageable pageable) {
+        try {
+            ProductFacetIndex.Query query = ProductFacetIndex.Query.builder()
+                    .categoryId(categoryId).subCategoryId(subCategoryId)
+                    .minPrice(minPrice).maxPrice(maxPrice)
+                    .brand(brand).minRating(minRating).inStock(inStock)
+                    .build();
+            ProductFacetIndex.Result result = productFacetIndex.filter(query, pageable);
+            if (result == null) {
+                // Index still building or a sort it cannot do: the same answer from the database
+                result = filterFacetsFromDatabase(categoryId, subCategoryId, minPrice, maxPrice,
+                        brand, minRating, inStock, pageable);
+            }
+
+            FacetedProductPageDTO dto = new FacetedProductPageDTO();
+            dto.setProducts(toPage(result, pageable));
+            dto.setBrands(result.brands());
+            dto.setCategories(result.categories());
+            dto.setMinPrice(result.minPrice());
+            dto.setMaxPrice(result.maxPrice());
+            return dto;
+        } catch (OperationFailedException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new OperationFailedException("Faceted filter products", ex.getMessage());
+        }
+    }
+
+    private ProductFacetIndex.Result filterFacetsFromDatabase(
+            Long categoryId, Long subCategoryId, Double minPrice, Double maxPrice,
+            String brand, Double minRating, Boolean inStock, Pageable pageable) {
+        Page<Product> page = productRepo.findByFilters(
+                categoryId, subCategoryId, minPrice, maxPrice, brand, minRating, inStock, pageable);
+
+        List<FacetCountDTO> brands = new ArrayList<>();
+        for (Object[] row : productRepo.countBrandsByFilters(categoryId, subCategoryId, minPrice, maxPrice, minRating, inStock)) {
+            brands.add(new FacetCountDTO(null, (String) row[0], ((Number) row[1]).intValue()));
+        }
+        brands.sort(Comparator.comparing(FacetCountDTO::getValue, String.CASE_INSENSITIVE_ORDER));
+
+        List<FacetCountDTO> categories = new ArrayList<>();
+        for (Object[] row : productRepo.countCategoriesByFilters(subCategoryId, minPrice, maxPrice, brand, minRating, inStock)) {
+            categories.add(new FacetCountDTO((Long) row[0], (String) row[1], ((Number) row[2]).intValue()));
+        }
+        categories.sort(Comparator.comparing(FacetCountDTO::getCount).reversed());
+
+        List<Object[]> range = productRepo.findPriceRangeByFilters(
+                categoryId, subCategoryId, minPrice, maxPrice, brand, minRating, inStock);
+        Object[] prices = range.isEmpty() ? new Object[2] : range.get(0);
+        return new ProductFacetIndex.Result(page.getContent().stream().map(Product::getId).toList(),
+                page.getTotalElements(), brands, categories, (BigDecimal) prices[0], (BigDecimal) prices[1]);
+    }
+
+    private Page<ProductResponseDTO> toPage(ProductFacetIndex.Result result, Pageable pageable) {
+        List<ProductResponseDTO> content = toDtos(findAllInOrder(result.pageIds()));
+        return new PageImpl<>(content, pageable, result.total());
+    }
+
+    // ==================== CURSOR (KEYSET) PAGINATION ====================
+
+    public CursorPageDTO<ProductResponseDTO> scrollAllProducts(String cursor, int size, Sort.Order order) {
+        try {
+            Sort sort = keysetSort(order);
+            Window<Product> window = productRepo.findAllBy(toScrollPosition(cursor, sort), sort, scrollLimit(size));
+            return toCursorPage(window, sort);
+        } catch (BadRequestException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new OperationFailedException("Scroll all products", ex.getMessage());
+        }
+    }
+
+    public CursorPageDTO<ProductResponseDTO> scrollProductsByCategory(Long categoryId, String cursor, int size, Sort.Order order) {
+        try {
+            Sort sort = keysetSort(order);
+            Window<Product> window = productRepo.findByCategoryId(categoryId, toScrollPosition(cursor, sort), sort, scrollLimit(size));
+            return toCursorPage(window, sort);
+        } catch (BadRequestException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new OperationFailedException("Scroll category products", ex.getMessage());
+        }
+    }
+
+    public CursorPageDTO<ProductResponseDTO> scrollProductsByVendor(Long vendorId, String cursor, int size, Sort.Order order) {
+        try {
+            Sort sort = keysetSort(order);
+            Window<Product> window = productRepo.findByVendorId(vendorId, toScrollPosition(cursor, sort), sort, scrollLimit(size));
+            return toCursorPage(window, sort);
+        } catch (BadRequestException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new OperationFailedException("Scroll vendor products", ex.getMessage());
+        }
+    }
+
+    // ✅ Search results keep relevance order; the cursor holds the last score and id seen
+    public CursorPageDTO<ProductResponseDTO> scrollSearchProducts(String keyword, String cursor, int size) {
+        try {
+            int limit = scrollLimit(size).max();
+            Map<String, Object> after = cursor != null && !cursor.isBlank() ? CursorCodec.decode(cursor) : Map.of();
+            List<ProductSearchIndex.SearchHit> hits = productSearchIndex.search(keyword);
+
+            if (hits != null) {
+                int from = 0;
+                if (!after.isEmpty()) {
+                    if (!(after.get("score") instanceof Double score) || !(after.get("id") instanceof Long id)) {
+                        throw new BadRequestException("Cursor does not match this search");
+                    }
+                    int pos = Collections.binarySearch(hits,
+                            new ProductSearchIndex.SearchHit(id, score), ProductSearchIndex.SearchHit.RANKING);
+                    from = pos >= 0 ? pos + 1 : -pos - 1;
+                }
+                int to = Math.min(from + limit, hits.size());
+                List<ProductSearchIndex.SearchHit> slice = hits.subList(from, to);
+                List<ProductResponseDTO> content = toDtos(findAllInOrder(slice.stream()
+                        .map(ProductSearchIndex.SearchHit::productId).toList()));
+                String nextCursor = null;
+                if (to < hits.size() && !slice.isEmpty()) {
+                    ProductSearchIndex.SearchHit last = slice.get(slice.size() - 1);
+                    Map<String, Object> keys = new LinkedHashMap<>();
+                    keys.put("score", last.score());
+                    keys.put("id", last.productId());
+                    nextCursor = CursorCodec.encode(keys);
+                }
+                return new CursorPageDTO<>(content, content.size(), nextCursor != null, nextCursor);
+            }
+
+            // Index not ready: seek through the LIKE query by id instead
+            if (!after.isEmpty() && (after.size() != 1 || !(after.get("id") instanceof Long))) {
+                throw new BadRequestException("Cursor does not match this search");
+            }
+            Long afterId = after.isEmpty() ? 0L : (Long) after.get("id");
+            List<Product> products = productRepo.searchProductsAfter(keyword, afterId, PageRequest.of(0, limit + 1));
+            boolean hasNext = products.size() > limit;
+            if (hasNext) {
+                products = products.subList(0, limit);
+            }
+            String nextCursor = hasNext
+                    ? CursorCodec.encode(Map.of("id", products.get(products.size() - 1).getId()))
+                    : null;
+            List<ProductResponseDTO> content = toDtos(products);
+            return new CursorPageDTO<>(content, content.size(), hasNext, nextCursor);
+        } catch (BadRequestException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new OperationFailedException("Scroll search products", ex.getMessage());
+        }
+    }
+
+    // Sort by the requested column with id as tie-breaker so every row has a unique position
+    private Sort keysetSort(Sort.Order order) {
+        if (!SCROLL_SORT_FIELDS.contains(order.getProperty())) {
+            throw new BadRequestException("Unsupported sort field for cursor pagination: " + order.getProperty());
+        }
+        Sort sort = Sort.by(order);
+        return order.getProperty().equals("id") ? sort : sort.and(Sort.by(order.getDirection(), "id"));
+    }
+
+    private Limit scrollLimit(int size) {
+        if (size < 1) {
+            throw new BadRequestException("Page size must be at least 1");
+        }
+        return Limit.of(Math.min(size, MAX_SCROLL_SIZE));
+    }
+
+    private ScrollPosition toScrollPosition(String cursor, Sort sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, Object> keys = new LinkedHashMap<>(CursorCodec.decode(cursor));
+        Object direction = keys.remove(CURSOR_DIRECTION_KEY);
+        Set<String> expected = sort.stream().map(Sort.Order::getProperty).collect(Collectors.toSet());
+        if (!keys.keySet().equals(expected) || !sort.iterator().next().getDirection().name().equals(direction)) {
+            throw new BadRequestException("Cursor does not match the requested sort");
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    private CursorPageDTO<ProductResponseDTO> toCursorPage(Window<Product> window, Sort sort) {
+        List<ProductResponseDTO> content = toDtos(window.getContent());
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            KeysetScrollPosition position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            Map<String, Object> keys = new LinkedHashMap<>(position.getKeys());
+            keys.put(CURSOR_DIRECTION_KEY, sort.iterator().next().getDirection().name());
+            nextCursor = CursorCodec.encode(keys);
+        }
+        return new CursorPageDTO<>(content, content.size(), nextCursor != null, nextCursor);
+    }
+
     // ==================== FEATURED PRODUCTS ENDPOINTS ====================
 
     public List<ProductResponseDTO> getTrendingProducts(int limit) {
+        return getTrendingProducts(null, limit);
+    }
+
+    public List<ProductResponseDTO> getTrendingProducts(Long categoryId, int limit) {
         try {
-            List<Product> products = productRepo.findTrendingProducts(limit);
-            return products.stream().map(this::toDto).collect(Collectors.toList());
+            List<Long> ids = trendingLeaderboard.top(categoryId, limit);
+            List<Product> products = ids != null
+                    ? findAllInOrder(ids)
+                    : productRepo.findTrendingProducts(categoryId, trendingLeaderboard.recencyCutoff(), limit);
+            return toDtos(products);
         } catch (Exception ex) {
             return getFallbackProducts(limit);
         }
@@ -419,9 +659,12 @@ public class ProductService {
 
     public List<ProductResponseDTO> getBestSellingProducts(int limit) {
         try {
-            Pageable pageable = PageRequest.of(0, limit);
-            List<Product> products = productRepo.findBestSellingProducts(pageable);
-            return products.stream().map(this::toDto).collect(Collectors.toList());
+            // Ranked by recent sales velocity; lifetime totals only until anything has sold
+            List<Long> ids = trendingLeaderboard.topSelling(limit);
+            List<Product> products = ids != null && !ids.isEmpty()
+                    ? findAllInOrder(ids)
+                    : productRepo.findBestSellingProducts(PageRequest.of(0, limit));
+            return toDtos(products);
         } catch (Exception ex) {
             return getFallbackProducts(limit);
         }
@@ -431,7 +674,7 @@ public class ProductService {
         try {
             Pageable pageable = PageRequest.of(0, limit);
             List<Product> products = productRepo.findFeaturedProducts(pageable);
-            return products.stream().map(this::toDto).collect(Collectors.toList());
+            return toDtos(products);
         } catch (Exception ex) {
             return getFallbackProducts(limit);
         }
@@ -441,7 +684,7 @@ public class ProductService {
         try {
             Pageable pageable = PageRequest.of(0, limit);
             List<Product> products = productRepo.findByStatus(ProductStatus.ACTIVE, pageable).getContent();
-            return products.stream().map(this::toDto).collect(Collectors.toList());
+            return toDtos(products);
         } catch (Exception ex) {
             return new ArrayList<>();
         }
@@ -458,6 +701,7 @@ public class ProductService {
             product.setStatus(newStatus);
             product.setUpdatedAt(LocalDateTime.now());
             Product updated = productRepo.save(product);
+            productChangePublisher.productSaved(updated);
             return toDto(updated);
         } catch (Exception ex) {
             throw new OperationFailedException("Change product status", ex.getMessage());
@@ -469,7 +713,7 @@ public class ProductService {
     public List<ProductResponseDTO> getProductsBySubCategory(Long subCategoryId) {
         try {
             List<Product> products = productRepo.findBySubCategoryId(subCategoryId);
-            return products.stream().map(this::toDto).collect(Collectors.toList());
+            return toDtos(products);
         } catch (Exception ex) {
             throw new OperationFailedException("Retrieve sub-category products", ex.getMessage());
         }
@@ -495,16 +739,17 @@ public class ProductService {
     public void incrementSalesCount(Long productId, int quantity) {
         try {
             productRepo.incrementSalesCount(productId, quantity);
+            trendingLeaderboard.recordSale(productId, quantity);
         } catch (Exception ex) {
             throw new OperationFailedException("Increment sales count", ex.getMessage());
         }
     }
 
     // ✅ UPDATED: incrementProductViews method
-    @Transactional
     public void incrementProductViews(Long productId) {
         try {
-            productRepo.incrementViewCount(productId);
+            productViewCounter.increment(productId);
+            trendingLeaderboard.recordView(productId);
         } catch (Exception ex) {
             throw new OperationFailedException("Increment product views", ex.getMessage());
         }
@@ -539,12 +784,26 @@ public class ProductService {
                     currentProduct.getBrand(),
                     pageable
             );
-            return similarProducts.stream().map(this::toDto).collect(Collectors.toList());
+            return toDtos(similarProducts);
         } catch (Exception ex) {
             return getFallbackProducts(limit);
         }
     }
 
+    // ✅ Load products by id keeping the order of the given ids
+    private List<Product> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Integer> position = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            position.put(ids.get(i), i);
+        }
+        List<Product> products = productRepo.findAllById(ids);
+        products.sort(Comparator.comparing(product -> position.get(product.getId())));
+        return products;
+    }
+
     // ✅ Check if product belongs to vendor
     public boolean isProductOwner(Long productId, Long vendorId) {
         try {
@@ -0,0 +1,335 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.config.SchedulingConfig;
+import com.exampleOf.EcommerceApplication.dto.responsedto.ProductSuggestionDTO;
+import com.exampleOf.EcommerceApplication.entity.Product;
+import com.exampleOf.EcommerceApplication.enums.ProductStatus;
+import com.exampleOf.EcommerceApplication.enums.SuggestionType;
+import com.exampleOf.EcommerceApplication.repository.ProductRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prefix autocomplete over product names, brands, categories and sub-categories.
+ * The trie is rebuilt off the request path and published as an immutable snapshot; every node
+ * carries its top-k completions precomputed, so a lookup is a walk of the typed prefix.
+ * Nodes keep a few spare completions past top-k, so products hidden since the last rebuild can be
+ * skipped without coming up short; top-k is also the largest limit a lookup accepts.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSuggestIndex implements ProductChangeListener {
+
+    private static final int MAX_WORD_STARTS = 5;
+
+    private final ProductRepo productRepo;
+
+    @Value("${product.suggest.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${product.suggest.top-k:10}")
+    private int topK;
+
+    // Extra completions per node, standing in for hidden products
+    @Value("${product.suggest.spare-candidates:5}")
+    private int spareCandidates;
+
+    @Value("${product.suggest.max-depth:20}")
+    private int maxDepth;
+
+    @Value("${product.suggest.max-products:200000}")
+    private int maxProducts;
+
+    @Value("${product.suggest.sales-weight:10}")
+    private double salesWeight;
+
+    @Value("${product.suggest.view-weight:1}")
+    private double viewWeight;
+
+    @Value("${product.suggest.rebuild-interval-ms:300000}")
+    private long rebuildIntervalMs;
+
+    private volatile Snapshot snapshot;
+    private volatile boolean dirty;
+    private volatile long lastBuiltAt;
+
+    // Deleted or deactivated products are hidden until the next rebuild drops them
+    private final Set<Long> hiddenProducts = ConcurrentHashMap.newKeySet();
+
+    // Hash of the indexed fields per product as of the last build; saves that leave them alone
+    // (price, stock, description, images...) do not need a rebuild
+    private volatile Map<Long, Integer> indexedFields = new ConcurrentHashMap<>();
+
+    // ==================== BUILD ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${product.suggest.refresh-check-ms:30000}", scheduler = SchedulingConfig.INDEX_REBUILD_SCHEDULER)
+    public void refresh() {
+        if (dirty || System.currentTimeMillis() - lastBuiltAt >= rebuildIntervalMs) {
+            rebuild();
+        }
+    }
+
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        dirty = false;
+        try {
+            List<Entry> products = new ArrayList<>();
+            Map<String, Entry> brands = new HashMap<>();
+            Map<Long, Entry> categories = new HashMap<>();
+            Map<Long, Entry> subCategories = new HashMap<>();
+            Map<Long, Integer> fields = new ConcurrentHashMap<>();
+
+            long lastId = 0L;
+            List<Object[]> rows;
+            do {
+                rows = productRepo.findSuggestFieldsAfter(lastId, ProductStatus.ACTIVE, PageRequest.of(0, batchSize));
+                for (Object[] row : rows) {
+                    lastId = (Long) row[0];
+                    double weight = 1 + salesWeight * toInt(row[7]) + viewWeight * toInt(row[8]);
+                    fields.put(lastId, fieldsHash((String) row[1], (String) row[2], (Long) row[3], (Long) row[5]));
+
+                    products.add(new Entry((String) row[1], SuggestionType.PRODUCT, lastId, weight));
+                    String brand = (String) row[2];
+                    if (brand != null && !brand.isBlank()) {
+                        brands.computeIfAbsent(normalize(brand), b -> new Entry(brand.trim(), SuggestionType.BRAND, null, 0))
+                                .weight += weight;
+                    }
+                    if (row[3] != null) {
+                        categories.computeIfAbsent((Long) row[3], id -> new Entry((String) row[4], SuggestionType.CATEGORY, id, 0))
+                                .weight += weight;
+                    }
+                    if (row[5] != null) {
+                        subCategories.computeIfAbsent((Long) row[5], id -> new Entry((String) row[6], SuggestionType.SUB_CATEGORY, id, 0))
+                                .weight += weight;
+                    }
+                }
+            } while (rows.size() == batchSize);
+
+            // Only the most popular products are worth a completion slot
+            products.sort(Entry.BY_WEIGHT);
+            List<Entry> entries = new ArrayList<>(products.subList(0, Math.min(products.size(), maxProducts)));
+            entries.addAll(brands.values());
+            entries.addAll(categories.values());
+            entries.addAll(subCategories.values());
+
+            snapshot = Snapshot.build(entries, topK + spareCandidates, maxDepth);
+            indexedFields = fields;
+            hiddenProducts.clear();
+            lastBuiltAt = System.currentTimeMillis();
+            log.info("Product suggest index built: {} entries in {} ms", entries.size(), lastBuiltAt - start);
+        } catch (RuntimeException ex) {
+            dirty = true;
+            log.error("Product suggest index build failed", ex);
+        }
+    }
+
+    // ==================== HOOKS ====================
+
+    @Override
+    public void onProductSaved(Product product) {
+        Long productId = product.getId();
+        if (product.getStatus() != ProductStatus.ACTIVE) {
+            hiddenProducts.add(productId);
+            return;
+        }
+        Integer indexed = indexedFields.get(productId);
+        int current = fieldsHash(product.getName(), product.getBrand(),
+                product.getCategory() != null ? product.getCategory().getId() : null,
+                product.getSubCategory() != null ? product.getSubCategory().getId() : null);
+        if (indexed != null && indexed == current) {
+            // Indexed as it is now; reactivated products only need to be shown again
+            hiddenProducts.remove(productId);
+        } else {
+            dirty = true;
+        }
+    }
+
+    @Override
+    public void onProductDeleted(Long productId) {
+        hiddenProducts.add(productId);
+        indexedFields.remove(productId);
+    }
+
+    // ==================== QUERY ====================
+
+    // Largest limit suggest can fill: each trie node only holds this many completions
+    public int maxLimit() {
+        return topK;
+    }
+
+    public List<ProductSuggestionDTO> suggest(String prefix, int limit) {
+        Snapshot current = snapshot;
+        String key = normalize(prefix);
+        if (current == null || key.isEmpty()) {
+            return List.of();
+        }
+
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        int[] top = current.lookup(key, maxDepth);
+        List<ProductSuggestionDTO> suggestions = new ArrayList<>(Math.min(limit, top.length));
+        for (int index : top) {
+            if (suggestions.size() >= limit) {
+                break;
+            }
+            Entry entry = current.entries[index];
+            if (entry.type == SuggestionType.PRODUCT && hiddenProducts.contains(entry.id)) {
+                continue;
+            }
+            // The trie stops at maxDepth characters, longer prefixes are checked against the text
+            if (key.length() > maxDepth && !matchesWordStart(normalize(entry.text), key)) {
+                continue;
+            }
+            suggestions.add(new ProductSuggestionDTO(entry.text, entry.type, entry.id));
+        }
+        return suggestions;
+    }
+
+    // ==================== HELPERS ====================
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private static int fieldsHash(String name, String brand, Long categoryId, Long subCategoryId) {
+        return Objects.hash(normalize(name), normalize(brand), categoryId, subCategoryId);
+    }
+
+    private static boolean matchesWordStart(String text, String key) {
+        return text.startsWith(key) || text.contains(" " + key);
+    }
+
+    private static int toInt(Object value) {
+        return value != null ? ((Number) value).intValue() : 0;
+    }
+
+    private static final class Entry {
+        static final Comparator<Entry> BY_WEIGHT = Comparator.comparingDouble((Entry e) -> e.weight).reversed();
+
+        final String text;
+        final SuggestionType type;
+        final Long id;
+        double weight;
+
+        Entry(String text, SuggestionType type, Long id, double weight) {
+            this.text = text;
+            this.type = type;
+            this.id = id;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Immutable trie. Children are stored as sorted label arrays and searched with binary search,
+     * and each node keeps the indices of its k heaviest completions.
+     */
+    private static final class Snapshot {
+        final Entry[] entries;
+        final Node root;
+
+        private Snapshot(Entry[] entries, Node root) {
+            this.entries = entries;
+            this.root = root;
+        }
+
+        static Snapshot build(List<Entry> source, int topK, int maxDepth) {
+            Entry[] entries = source.toArray(new Entry[0]);
+            Arrays.sort(entries, Entry.BY_WEIGHT);
+
+            // Entries are inserted heaviest first, so each node's list fills in rank order
+            BuildNode root = new BuildNode();
+            for (int i = 0; i < entries.length; i++) {
+                String key = normalize(entries[i].text);
+                int starts = 0;
+                for (int pos = 0; pos < key.length() && starts < MAX_WORD_STARTS; pos++) {
+                    if (pos == 0 || key.charAt(pos - 1) == ' ') {
+                        root.insert(key, pos, i, topK, maxDepth);
+                        starts++;
+                    }
+                }
+            }
+            return new Snapshot(entries, root.freeze());
+        }
+
+        int[] lookup(String key, int maxDepth) {
+            Node node = root;
+            int depth = Math.min(key.length(), maxDepth);
+            for (int i = 0; i < depth && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            return node != null ? node.top : new int[0];
+        }
+    }
+
+    private static final class Node {
+        final char[] labels;
+        final Node[] children;
+        final int[] top;
+
+        Node(char[] labels, Node[] children, int[] top) {
+            this.labels = labels;
+            this.children = children;
+            this.top = top;
+        }
+
+        Node child(char c) {
+            int pos = Arrays.binarySearch(labels, c);
+            return pos >= 0 ? children[pos] : null;
+        }
+    }
+
+    private static final class BuildNode {
+        final TreeMap<Character, BuildNode> children = new TreeMap<>();
+        int[] top = new int[0];
+
+        void insert(String key, int from, int entry, int topK, int maxDepth) {
+            BuildNode node = this;
+            int end = Math.min(key.length(), from + maxDepth);
+            for (int pos = from; pos < end; pos++) {
+                node = node.children.computeIfAbsent(key.charAt(pos), c -> new BuildNode());
+                node.offer(entry, topK);
+            }
+        }
+
+        void offer(int entry, int topK) {
+            int size = top.length;
+            if (size >= topK || (size > 0 && top[size - 1] == entry)) {
+                return;
+            }
+            top = Arrays.copyOf(top, size + 1);
+            top[size] = entry;
+        }
+
+        Node freeze() {
+            char[] labels = new char[children.size()];
+            Node[] frozen = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, BuildNode> child : children.entrySet()) {
+                labels[i] = child.getKey();
+                frozen[i] = child.getValue().freeze();
+                i++;
+            }
+            return new Node(labels, frozen, top);
+        }
+    }
+}
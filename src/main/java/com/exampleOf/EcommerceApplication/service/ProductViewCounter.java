@@ -0,0 +1,94 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.repository.ProductRepo;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind product view counter. Page views only bump a per-product {@link LongAdder};
+ * a scheduled flush writes the accumulated deltas with a handful of multi-row UPDATEs
+ * (products grouped by delta), so readers of a hot product never queue on its row lock.
+ * Views not yet written are still reported through {@link #pending(Long)}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductViewCounter {
+
+    private final ProductRepo productRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductDetailCache productDetailCache;
+
+    @Value("${product.views.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    // Deltas taken out of the adders but not committed yet, still visible to pending()
+    private volatile Map<Long, Long> inFlight = Map.of();
+
+    public void increment(Long productId) {
+        pending.computeIfAbsent(productId, id -> new LongAdder()).increment();
+    }
+
+    public long pending(Long productId) {
+        LongAdder adder = pending.get(productId);
+        Long flushing = inFlight.get(productId);
+        return (adder != null ? adder.sum() : 0) + (flushing != null ? flushing : 0);
+    }
+
+    // The flush interval is the maximum time a view stays out of the products table
+    @Scheduled(fixedDelayString = "${product.views.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta == 0 && pending.remove(entry.getKey(), entry.getValue())) {
+                // Catch an increment that landed between the read and the removal
+                delta = entry.getValue().sumThenReset();
+            }
+            if (delta > 0) {
+                deltas.put(entry.getKey(), delta);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        inFlight = deltas;
+        long started = productDetailCache.viewFlushStarted();
+        Map<Long, Long> written = Map.of();
+        try {
+            Map<Long, List<Long>> idsByDelta = new HashMap<>();
+            deltas.forEach((id, delta) -> idsByDelta.computeIfAbsent(delta, d -> new ArrayList<>()).add(id));
+            transactionTemplate.executeWithoutResult(status -> idsByDelta.forEach((delta, ids) -> {
+                for (int from = 0; from < ids.size(); from += flushBatchSize) {
+                    List<Long> chunk = ids.subList(from, Math.min(from + flushBatchSize, ids.size()));
+                    productRepo.addViewCount(chunk, delta.intValue());
+                }
+            }));
+            written = deltas;
+        } catch (RuntimeException ex) {
+            // Put the deltas back so the next flush retries them
+            deltas.forEach((id, delta) -> pending.computeIfAbsent(id, k -> new LongAdder()).add(delta));
+            log.warn("Product view flush failed for {} products, retrying next cycle", deltas.size(), ex);
+        } finally {
+            productDetailCache.viewsFlushed(started, written);
+            inFlight = Map.of();
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        flush();
+    }
+}
@@ -0,0 +1,406 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.config.SchedulingConfig;
+import com.exampleOf.EcommerceApplication.entity.Product;
+import com.exampleOf.EcommerceApplication.enums.ProductStatus;
+import com.exampleOf.EcommerceApplication.enums.VendorStatus;
+import com.exampleOf.EcommerceApplication.repository.ProductRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trending products kept as bounded top-N boards, one global and one per category, plus a
+ * best-seller board. Views and sales count through {@link ProductActivityTracker}, so both
+ * rankings follow recent velocity rather than lifetime totals.
+ * A view only bumps its product's counter; views are folded into the boards by the scheduled
+ * re-score, which ranks every product off the lock and takes the write lock only to swap in the
+ * new boards. Sales and product changes re-score a single product and re-offer it straight away.
+ * Reading a board walks at most {@code limit} entries.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TrendingLeaderboard implements ProductChangeListener {
+
+    private final ProductRepo productRepo;
+    private final ProductActivityTracker activityTracker;
+
+    @Value("${product.trending.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${product.trending.capacity:100}")
+    private int capacity;
+
+    @Value("${product.trending.rating-weight:0.3}")
+    private double ratingWeight;
+
+    @Value("${product.trending.sales-weight:0.4}")
+    private double salesWeight;
+
+    @Value("${product.trending.view-weight:0.2}")
+    private double viewWeight;
+
+    @Value("${product.trending.boost-weight:0.1}")
+    private double boostWeight;
+
+    @Value("${product.trending.recency-bonus:0.1}")
+    private double recencyBonus;
+
+    @Value("${product.trending.recency-window-days:30}")
+    private long recencyWindowDays;
+
+    @Value("${product.trending.rebuild-interval-ms:600000}")
+    private long rebuildIntervalMs;
+
+    // Guards stats and boards; Stats objects are replaced, never changed, so a copied list stays consistent
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, Stats> stats = new HashMap<>();
+    private Boards boards = new Boards();
+
+    // Products changed by hooks while a re-score was ranking a copy; replayed onto its boards at the swap
+    private final Set<Long> changedDuringRescore = new HashSet<>();
+    private boolean rescoring;
+
+    // Products that left the eligible set while a rebuild was loading
+    private final Set<Long> removedDuringBuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean building;
+    private volatile boolean ready;
+    private volatile long lastBuiltAt;
+
+    // ==================== BUILD ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    // Re-score from memory every cycle; reload from the database once the rebuild interval passed
+    @Scheduled(initialDelayString = "${product.trending.refresh-ms:60000}",
+            fixedDelayString = "${product.trending.refresh-ms:60000}",
+            scheduler = SchedulingConfig.INDEX_REBUILD_SCHEDULER)
+    public void refresh() {
+        if (System.currentTimeMillis() - lastBuiltAt >= rebuildIntervalMs) {
+            rebuild();
+            return;
+        }
+        rescore();
+    }
+
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        building = true;
+        removedDuringBuild.clear();
+        Map<Long, Stats> loaded = new HashMap<>();
+        try {
+            long lastId = 0L;
+            List<Object[]> rows;
+            do {
+                rows = productRepo.findTrendingFieldsAfter(lastId, ProductStatus.ACTIVE, VendorStatus.ACTIVE,
+                        PageRequest.of(0, batchSize));
+                for (Object[] row : rows) {
+                    Stats s = new Stats((Long) row[0], (Long) row[1],
+                            row[2] != null ? (Double) row[2] : 0,
+                            row[3] != null ? (Double) row[3] : 0,
+                            toEpochMillis((LocalDateTime) row[4]),
+                            row[5] != null && (Integer) row[5] > 0);
+                    loaded.put(s.id(), s);
+                    lastId = s.id();
+                }
+            } while (rows.size() == batchSize);
+        } catch (RuntimeException ex) {
+            building = false;
+            log.error("Trending leaderboard build failed, trending falls back to the database", ex);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            building = false;
+            removedDuringBuild.forEach(loaded::remove);
+            removedDuringBuild.clear();
+            stats = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        rescore();
+        ready = true;
+        lastBuiltAt = System.currentTimeMillis();
+        log.info("Trending leaderboard built: {} products in {} ms", loaded.size(), System.currentTimeMillis() - start);
+    }
+
+    // Ranks a copy of the stats off the lock, then swaps the new boards in
+    private synchronized void rescore() {
+        List<Stats> copy;
+        lock.writeLock().lock();
+        try {
+            copy = new ArrayList<>(stats.values());
+            rescoring = true;
+            changedDuringRescore.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long now = System.currentTimeMillis();
+        Boards next = new Boards();
+        for (Stats s : copy) {
+            offer(next, s, now);
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Long productId : changedDuringRescore) {
+                Stats s = stats.get(productId);
+                if (s != null) {
+                    offer(next, s, now);
+                } else {
+                    next.remove(productId, null);
+                }
+            }
+            boards = next;
+            rescoring = false;
+            changedDuringRescore.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ==================== HOOKS ====================
+
+    // Same rule as the rebuild query; out-of-stock products are kept but stay off the boards until restocked
+    @Override
+    public void onProductSaved(Product product) {
+        boolean eligible = product.getStatus() == ProductStatus.ACTIVE
+                && product.getVendor() != null
+                && product.getVendor().getVendorStatus() == VendorStatus.ACTIVE;
+        if (!eligible) {
+            onProductDeleted(product.getId());
+            return;
+        }
+        Stats s = new Stats(product.getId(),
+                product.getCategory() != null ? product.getCategory().getId() : null,
+                product.getRating() != null ? product.getRating() : 0,
+                product.getAdminBoost() != null ? product.getAdminBoost() : 0,
+                toEpochMillis(product.getCreatedAt()),
+                product.getStock() != null && product.getStock() > 0);
+        lock.writeLock().lock();
+        try {
+            Stats old = stats.put(s.id(), s);
+            if (old != null && old.categoryId() != null && !old.categoryId().equals(s.categoryId())) {
+                Board board = boards.byCategory.get(old.categoryId());
+                if (board != null) {
+                    board.remove(s.id());
+                }
+            }
+            changed(s.id());
+            offer(boards, s, System.currentTimeMillis());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onStockChanged(Long productId, int available) {
+        lock.writeLock().lock();
+        try {
+            Stats s = stats.get(productId);
+            if (s != null && s.inStock() != available > 0) {
+                Stats updated = s.withInStock(available > 0);
+                stats.put(productId, updated);
+                changed(productId);
+                offer(boards, updated, System.currentTimeMillis());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onProductDeleted(Long productId) {
+        if (building) {
+            removedDuringBuild.add(productId);
+        }
+        lock.writeLock().lock();
+        try {
+            Stats s = stats.remove(productId);
+            changed(productId);
+            boards.remove(productId, s != null ? s.categoryId() : null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Lock-free: the view lands in the activity counter and reaches the boards on the next re-score
+    public void recordView(Long productId) {
+        activityTracker.recordView(productId);
+    }
+
+    public void recordSale(Long productId, int quantity) {
+        activityTracker.recordSale(productId, quantity);
+        lock.writeLock().lock();
+        try {
+            Stats s = stats.get(productId);
+            if (s != null) {
+                changed(productId);
+                offer(boards, s, System.currentTimeMillis());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ==================== QUERY ====================
+
+    /**
+     * Ids of the top trending products, best first, optionally within one category.
+     * Returns null when the leaderboard is not built yet or the limit is larger than a board holds.
+     */
+    public List<Long> top(Long categoryId, int limit) {
+        if (!ready || limit > capacity) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            Board board = categoryId != null ? boards.byCategory.get(categoryId) : boards.global;
+            return board != null ? board.first(limit) : List.of();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Ids of the products with the most recent sales velocity, or null when not built yet. */
+    public List<Long> topSelling(int limit) {
+        if (!ready || limit > capacity) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            return boards.bestSellers.first(limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Start of the recency window, for the database fallback query
+    public LocalDateTime recencyCutoff() {
+        return LocalDateTime.now().minusDays(recencyWindowDays);
+    }
+
+    // ==================== INTERNALS ====================
+
+    // Caller holds the write lock, or owns the boards exclusively
+    private void offer(Boards target, Stats s, long now) {
+        if (!s.inStock()) {
+            target.remove(s.id(), s.categoryId());
+            return;
+        }
+        double sales = activityTracker.salesScore(s.id(), now);
+        double score = ratingWeight * s.rating() + salesWeight * sales
+                + viewWeight * activityTracker.viewScore(s.id(), now) + boostWeight * s.boost();
+        if (now - s.createdAt() < TimeUnit.DAYS.toMillis(recencyWindowDays)) {
+            score += recencyBonus;
+        }
+        target.global.offer(s.id(), score, capacity);
+        if (sales > 0) {
+            target.bestSellers.offer(s.id(), sales, capacity);
+        }
+        if (s.categoryId() != null) {
+            target.byCategory.computeIfAbsent(s.categoryId(), id -> new Board()).offer(s.id(), score, capacity);
+        }
+    }
+
+    private void changed(Long productId) {
+        if (rescoring) {
+            changedDuringRescore.add(productId);
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time != null ? time.toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+    }
+
+    // ==================== TYPES ====================
+
+    private record Stats(long id, Long categoryId, double rating, double boost, long createdAt, boolean inStock) {
+        Stats withInStock(boolean value) {
+            return new Stats(id, categoryId, rating, boost, createdAt, value);
+        }
+    }
+
+    /** The global, best-seller and per-category boards, swapped as one by a re-score. */
+    private static final class Boards {
+        final Board global = new Board();
+        final Board bestSellers = new Board();
+        final Map<Long, Board> byCategory = new HashMap<>();
+
+        // Category unknown (null) means every category board is checked
+        void remove(long id, Long categoryId) {
+            global.remove(id);
+            bestSellers.remove(id);
+            if (categoryId != null) {
+                Board board = byCategory.get(categoryId);
+                if (board != null) {
+                    board.remove(id);
+                }
+            } else {
+                byCategory.values().forEach(board -> board.remove(id));
+            }
+        }
+    }
+
+    private record Ranked(long id, double score) {
+        static final Comparator<Ranked> ORDER = Comparator.comparingDouble(Ranked::score).reversed()
+                .thenComparingLong(Ranked::id);
+    }
+
+    /** Top-N board: a sorted set capped at capacity plus an id lookup for re-offers. */
+    private static final class Board {
+        final TreeSet<Ranked> ranked = new TreeSet<>(Ranked.ORDER);
+        final Map<Long, Ranked> members = new HashMap<>();
+
+        void offer(long id, double score, int capacity) {
+            Ranked entry = new Ranked(id, score);
+            Ranked old = members.remove(id);
+            if (old != null) {
+                ranked.remove(old);
+            }
+            if (ranked.size() < capacity || Ranked.ORDER.compare(entry, ranked.last()) < 0) {
+                ranked.add(entry);
+                members.put(id, entry);
+                if (ranked.size() > capacity) {
+                    members.remove(ranked.pollLast().id());
+                }
+            }
+        }
+
+        void remove(long id) {
+            Ranked old = members.remove(id);
+            if (old != null) {
+                ranked.remove(old);
+            }
+        }
+
+        List<Long> first(int limit) {
+            List<Long> ids = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (Ranked entry : ranked) {
+                if (ids.size() >= limit) {
+                    break;
+                }
+                ids.add(entry.id());
+            }
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.exampleOf.EcommerceApplication.util;
+
+import com.exampleOf.EcommerceApplication.Exception.CustomException.BadRequestException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque continuation tokens for keyset pagination.
+ * A token is the URL-safe Base64 form of "key=type:value" pairs holding the sort key values
+ * (and id) of the last row a client has seen.
+ */
+public final class CursorCodec {
+
+    private static final String PAIR_SEPARATOR = "\u001F";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Map<String, ?> keys) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, ?> entry : keys.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(PAIR_SEPARATOR);
+            }
+            Object value = entry.getValue();
+            sb.append(entry.getKey()).append('=')
+                    .append(typeOf(value)).append(':')
+                    .append(value != null ? value.toString() : "");
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Map<String, Object> decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (String pair : raw.split(PAIR_SEPARATOR)) {
+                int eq = pair.indexOf('=');
+                int colon = pair.indexOf(':', eq);
+                String type = pair.substring(eq + 1, colon);
+                String value = pair.substring(colon + 1);
+                keys.put(pair.substring(0, eq), parse(type, value));
+            }
+            return keys;
+        } catch (RuntimeException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    private static String typeOf(Object value) {
+        if (value == null) return "N";
+        if (value instanceof Long) return "L";
+        if (value instanceof Integer) return "I";
+        if (value instanceof Double) return "D";
+        if (value instanceof BigDecimal) return "B";
+        if (value instanceof LocalDateTime) return "T";
+        if (value instanceof String) return "S";
+        if (value instanceof Boolean) return "Z";
+        if (value instanceof Enum<?>) return "S";
+        throw new IllegalArgumentException("Unsupported cursor value type: " + value.getClass().getName());
+    }
+
+    private static Object parse(String type, String value) {
+        return switch (type) {
+            case "N" -> null;
+            case "L" -> Long.valueOf(value);
+            case "I" -> Integer.valueOf(value);
+            case "D" -> Double.valueOf(value);
+            case "B" -> new BigDecimal(value);
+            case "T" -> LocalDateTime.parse(value);
+            case "S" -> value;
+            case "Z" -> Boolean.valueOf(value);
+            default -> throw new IllegalArgumentException("Unknown cursor value type: " + type);
+        };
+    }
+}
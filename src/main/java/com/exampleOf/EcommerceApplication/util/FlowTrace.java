@@ -0,0 +1,102 @@
+package com.exampleOf.EcommerceApplication.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sampled tracing for the cart and checkout flow. RequestTraceFilter starts a trace for a sample
+ * of requests; only those write anything. Everywhere else an event costs one ThreadLocal read:
+ * no message is formatted and the logger is never asked. Sampled events go to the
+ * "com.exampleOf.EcommerceApplication.trace" logger at DEBUG, which logback-spring.xml sends
+ * through an async appender, so a request never waits on console output.
+ */
+public final class FlowTrace {
+
+    public static final String MDC_KEY = "traceId";
+
+    private static final Logger log = LoggerFactory.getLogger("com.exampleOf.EcommerceApplication.trace");
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private FlowTrace() {
+    }
+
+    // Starts a trace on this thread with the given probability; returns its id, or null if not sampled
+    public static String begin(double sampleRate) {
+        if (sampleRate <= 0 || !log.isDebugEnabled() || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return null;
+        }
+        String traceId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        CURRENT.set(traceId);
+        MDC.put(MDC_KEY, traceId);
+        return traceId;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+        MDC.remove(MDC_KEY);
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    public static boolean active() {
+        return CURRENT.get() != null;
+    }
+
+    // Continues a trace on another thread (e.g. the checkout pipeline worker) until the scope is closed
+    public static Scope resume(String traceId) {
+        String previous = CURRENT.get();
+        if (traceId == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(traceId);
+        }
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    // ==================== EVENTS ====================
+    // Fixed-arity overloads so an unsampled call does not even allocate a varargs array
+
+    public static void event(String format) {
+        String traceId = CURRENT.get();
+        if (traceId != null) {
+            log.debug("[trace {}] " + format, traceId);
+        }
+    }
+
+    public static void event(String format, Object arg) {
+        String traceId = CURRENT.get();
+        if (traceId != null) {
+            log.debug("[trace {}] " + format, traceId, arg);
+        }
+    }
+
+    public static void event(String format, Object arg1, Object arg2) {
+        String traceId = CURRENT.get();
+        if (traceId != null) {
+            log.debug("[trace {}] " + format, traceId, arg1, arg2);
+        }
+    }
+
+    public static void event(String format, Object arg1, Object arg2, Object arg3) {
+        String traceId = CURRENT.get();
+        if (traceId != null) {
+            log.debug("[trace {}] " + format, traceId, arg1, arg2, arg3);
+        }
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,130 @@
+package com.exampleOf.EcommerceApplication.repository;
+
+import com.exampleOf.EcommerceApplication.entity.Category;
+import com.exampleOf.EcommerceApplication.entity.Product;
+import com.exampleOf.EcommerceApplication.entity.ProductSpecification;
+import com.exampleOf.EcommerceApplication.entity.User;
+import com.exampleOf.EcommerceApplication.entity.Vendor;
+import com.exampleOf.EcommerceApplication.enums.ProductStatus;
+import com.exampleOf.EcommerceApplication.enums.UserRole;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Rows/sec for spec inserts sent one statement per row (what IDENTITY forced) versus JDBC batches.
+// Opt-in: mvn test -DexcludedGroups=none -Dgroups=benchmark
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InsertBatchingBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(InsertBatchingBenchmarkTest.class);
+
+    private static final int ROWS = 20_000;
+    private static final int FLUSH_EVERY = 1_000;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private ProductRepo productRepo;
+    @Autowired
+    private ProductSpecificationRepo specificationRepo;
+    @Autowired
+    private CategoryRepo categoryRepo;
+    @Autowired
+    private VendorRepository vendorRepo;
+    @Autowired
+    private UserRepository userRepo;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void insertRowsPerSecond() {
+        Product product = createProduct();
+
+        // Warm up the JIT and the connection pool on the batched path
+        insert(product, 2_000, null);
+
+        Result rowAtATime = insert(product, ROWS, 1);
+        Result batched = insert(product, ROWS, null);
+
+        log.info("Row at a time: {} rows/sec ({} statements)", rowAtATime.rowsPerSecond(), rowAtATime.statements());
+        log.info("Batched:       {} rows/sec ({} statements)", batched.rowsPerSecond(), batched.statements());
+        assertEquals(2_000 + 2L * ROWS, specificationRepo.count());
+    }
+
+    private Result insert(Product product, int rows, Integer jdbcBatchSize) {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            session.setJdbcBatchSize(jdbcBatchSize);
+            Product owner = entityManager.getReference(Product.class, product.getId());
+            for (int i = 0; i < rows; i++) {
+                ProductSpecification spec = new ProductSpecification();
+                spec.setKey("key-" + i);
+                spec.setValue("value-" + i);
+                spec.setDisplayOrder(i);
+                spec.setProduct(owner);
+                entityManager.persist(spec);
+                if ((i + 1) % FLUSH_EVERY == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    owner = entityManager.getReference(Product.class, product.getId());
+                }
+            }
+        });
+        long elapsed = System.nanoTime() - start;
+        return new Result(rows * 1_000_000_000L / Math.max(1, elapsed), statistics.getPrepareStatementCount());
+    }
+
+    private Product createProduct() {
+        User user = new User();
+        user.setEmail("bench@test.local");
+        user.setPassword("secret");
+        user.setFirstName("Bench");
+        user.setRole(UserRole.VENDOR);
+        user = userRepo.save(user);
+
+        Vendor vendor = new Vendor();
+        vendor.setShopName("Bench Shop");
+        vendor.setUser(user);
+        vendor = vendorRepo.save(vendor);
+
+        Category category = new Category();
+        category.setName("Bench Category");
+        category = categoryRepo.save(category);
+
+        Product product = new Product();
+        product.setName("Bench Product");
+        product.setPrice(BigDecimal.TEN);
+        product.setStock(1);
+        product.setStatus(ProductStatus.ACTIVE);
+        product.setVendor(vendor);
+        product.setCategory(category);
+        return productRepo.save(product);
+    }
+
+    private record Result(long rowsPerSecond, long statements) {
+    }
+}
@@ -0,0 +1,236 @@
+package com.exampleOf.EcommerceApplication.service;
+
+import com.exampleOf.EcommerceApplication.entity.Category;
+import com.exampleOf.EcommerceApplication.entity.Product;
+import com.exampleOf.EcommerceApplication.entity.User;
+import com.exampleOf.EcommerceApplication.entity.Vendor;
+import com.exampleOf.EcommerceApplication.enums.ProductStatus;
+import com.exampleOf.EcommerceApplication.enums.UserRole;
+import com.exampleOf.EcommerceApplication.repository.CategoryRepo;
+import com.exampleOf.EcommerceApplication.repository.ProductRepo;
+import com.exampleOf.EcommerceApplication.repository.UserRepository;
+import com.exampleOf.EcommerceApplication.repository.VendorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Checkouts racing on the striped ledger: no oversell, rollbacks and expiry hand units back,
+// and after a flush products.stock matches what the ledger holds
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryLedgerConcurrencyTest {
+
+    private static final int STOCK = 500;
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS = 2000;
+
+    @Autowired
+    private ProductRepo productRepo;
+    @Autowired
+    private CategoryRepo categoryRepo;
+    @Autowired
+    private VendorRepository vendorRepo;
+    @Autowired
+    private UserRepository userRepo;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private InventoryLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        ledger = new InventoryLedger(productRepo, tx, new ProductChangePublisher(List.of()));
+        ReflectionTestUtils.setField(ledger, "stripeCount", 8);
+        ReflectionTestUtils.setField(ledger, "reservationTtlMs", 120_000L);
+        ReflectionTestUtils.setField(ledger, "flushBatchSize", 500);
+    }
+
+    @Test
+    void concurrentCheckoutsNeverOversell() throws Exception {
+        Long productId = createProduct(STOCK).getId();
+
+        AtomicInteger reserved = new AtomicInteger();
+        runConcurrently(ATTEMPTS, i -> {
+            try {
+                tx.executeWithoutResult(status -> ledger.reserveForTransaction(Map.of(productId, 1)));
+                reserved.incrementAndGet();
+            } catch (RuntimeException ex) {
+                // Out of stock
+            }
+        });
+
+        // Every unit sold, none twice: contended stripes must not turn into false "out of stock"
+        assertEquals(STOCK, reserved.get());
+        assertEquals(0, ledger.available(productId, null));
+        ledger.flush();
+        assertEquals(0, storedStock(productId));
+    }
+
+    @Test
+    void rolledBackCheckoutGivesUnitsBack() {
+        Long productId = createProduct(10).getId();
+
+        tx.executeWithoutResult(status -> {
+            ledger.reserveForTransaction(Map.of(productId, 4));
+            assertEquals(6, ledger.available(productId, null));
+            status.setRollbackOnly();
+        });
+        assertThrows(IllegalStateException.class, () -> tx.executeWithoutResult(status -> {
+            ledger.reserveForTransaction(Map.of(productId, 7));
+            throw new IllegalStateException("order insert failed");
+        }));
+
+        assertEquals(10, ledger.available(productId, null));
+        ledger.flush();
+        assertEquals(10, storedStock(productId));
+    }
+
+    @Test
+    void multiLineReservationIsAllOrNothing() {
+        Long plenty = createProduct(10).getId();
+        Long scarce = createProduct(2).getId();
+
+        assertThrows(RuntimeException.class, () -> tx.executeWithoutResult(status ->
+                ledger.reserveForTransaction(Map.of(plenty, 5, scarce, 3))));
+
+        assertEquals(10, ledger.available(plenty, null));
+        assertEquals(2, ledger.available(scarce, null));
+    }
+
+    @Test
+    void expiredReservationIsReleasedOnceAndItsCommitFails() {
+        Long productId = createProduct(10).getId();
+        ReflectionTestUtils.setField(ledger, "reservationTtlMs", -1L);
+
+        assertThrows(RuntimeException.class, () -> tx.executeWithoutResult(status -> {
+            ledger.reserveForTransaction(Map.of(productId, 3));
+            ledger.expireReservations();
+            assertEquals(10, ledger.available(productId, null));
+        }));
+
+        // The failed commit must not hand the same units back a second time
+        assertEquals(10, ledger.available(productId, null));
+        ledger.flush();
+        assertEquals(10, storedStock(productId));
+    }
+
+    @Test
+    void flushedStockMatchesLedgerAfterMixedTraffic() throws Exception {
+        Long productId = createProduct(STOCK).getId();
+
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger returned = new AtomicInteger();
+        ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor();
+        flusher.scheduleWithFixedDelay(ledger::flush, 0, 5, TimeUnit.MILLISECONDS);
+        try {
+            runConcurrently(ATTEMPTS, i -> {
+                int quantity = 1 + i % 3;
+                try {
+                    tx.executeWithoutResult(status -> {
+                        ledger.reserveForTransaction(Map.of(productId, quantity));
+                        if (i % 5 == 0) {
+                            status.setRollbackOnly();
+                        }
+                    });
+                    if (i % 5 != 0) {
+                        sold.addAndGet(quantity);
+                    }
+                } catch (RuntimeException ex) {
+                    // Out of stock
+                }
+                if (i % 7 == 0) {
+                    tx.executeWithoutResult(status -> ledger.restockAfterCommit(Map.of(productId, 1)));
+                    returned.incrementAndGet();
+                }
+            });
+        } finally {
+            flusher.shutdown();
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        ledger.flush();
+
+        int expected = STOCK - sold.get() + returned.get();
+        assertEquals(expected, ledger.available(productId, null));
+        assertEquals(expected, storedStock(productId));
+    }
+
+    // ==================== HELPERS ====================
+
+    private void runConcurrently(int attempts, IntTask task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            int attempt = i;
+            futures.add(pool.submit(() -> {
+                start.await();
+                task.run(attempt);
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private int storedStock(Long productId) {
+        return productRepo.findStockById(productId);
+    }
+
+    private Product createProduct(int stock) {
+        String suffix = String.valueOf(System.nanoTime());
+
+        User user = new User();
+        user.setEmail("vendor" + suffix + "@test.local");
+        user.setPassword("secret");
+        user.setFirstName("Vendor");
+        user.setRole(UserRole.VENDOR);
+        user = userRepo.save(user);
+
+        Vendor vendor = new Vendor();
+        vendor.setShopName("Shop " + suffix);
+        vendor.setUser(user);
+        vendor = vendorRepo.save(vendor);
+
+        Category category = new Category();
+        category.setName("Category " + suffix);
+        category = categoryRepo.save(category);
+
+        Product product = new Product();
+        product.setName("Product " + suffix);
+        product.setPrice(BigDecimal.TEN);
+        product.setStock(stock);
+        product.setStatus(ProductStatus.ACTIVE);
+        product.setVendor(vendor);
+        product.setCategory(category);
+        return productRepo.save(product);
+    }
+
+    @FunctionalInterface
+    private interface IntTask {
+        void run(int attempt);
+    }
+}